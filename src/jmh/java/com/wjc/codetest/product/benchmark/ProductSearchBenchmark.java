@@ -0,0 +1,112 @@
+package com.wjc.codetest.product.benchmark;
+
+import com.wjc.codetest.CodeTestApplication;
+import com.wjc.codetest.product.model.request.CreateProductRequest;
+import com.wjc.codetest.product.model.response.ProductListResponse;
+import com.wjc.codetest.product.model.response.ProductTypeaheadResponse;
+import com.wjc.codetest.product.repository.ProductRepository;
+import com.wjc.codetest.product.repository.ProductView;
+import com.wjc.codetest.product.service.ProductBulkService;
+import com.wjc.codetest.product.service.ProductSearchService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+    상품명 검색 벤치마크: 인메모리 역색인 vs SQL LIKE '%x%'
+
+        - 형용사 + 소재 + 품목 조합으로 datasetSize 건의 상품명을 만들어 적재합니다.
+        - 같은 검색어(단어 일치, 단어 중간 부분 문자열, 두 단어)를 양쪽에 던져 첫 페이지(PAGE_SIZE건 + 전체 건수)를 받는 비용을 비교합니다.
+        - LIKE 쪽은 content + count 두 쿼리가 모두 테이블 전체를 읽습니다.
+        - typeahead는 검색어 앞 두 글자로 카테고리/상품명 자동완성을 요청합니다. (trie 노드의 미리 계산된 목록)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductSearchBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int SEED_CHUNK = 5_000;
+
+    private static final String[] ADJECTIVES = {"classic", "modern", "rustic", "compact", "deluxe", "vintage", "slim", "folding"};
+    private static final String[] MATERIALS = {"walnut", "oak", "steel", "bamboo", "marble", "leather", "glass", "linen"};
+    private static final String[] ITEMS = {"desk", "chair", "lamp", "shelf", "table", "stool", "cabinet", "bench", "mirror", "sofa"};
+
+    @Param({"10000"})
+    private int datasetSize;
+
+    @Param({"walnut", "arbl", "rustic lamp"})
+    private String query;
+
+    private ConfigurableApplicationContext context;
+    private ProductSearchService productSearchService;
+    private ProductRepository productRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CodeTestApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:search-benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN"
+                )
+                .run();
+        productSearchService = context.getBean(ProductSearchService.class);
+        productRepository = context.getBean(ProductRepository.class);
+        seed(context.getBean(ProductBulkService.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ProductListResponse invertedIndex() {
+        return productSearchService.search(query, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public ProductTypeaheadResponse typeahead() {
+        return productSearchService.typeahead(query.substring(0, 2), 10);
+    }
+
+    // LIKE는 검색어 전체를 하나의 부분 문자열로 비교하므로 여러 단어 검색어는 첫 단어만 사용합니다.
+    @Benchmark
+    public Page<ProductView> sqlLike() {
+        return productRepository.findByNameContainingIgnoreCase(query.split(" ")[0], PageRequest.of(0, PAGE_SIZE));
+    }
+
+    private void seed(ProductBulkService productBulkService) {
+        for (int from = 0; from < datasetSize; from += SEED_CHUNK) {
+            List<CreateProductRequest> chunk = new ArrayList<>(SEED_CHUNK);
+            for (int i = from; i < Math.min(from + SEED_CHUNK, datasetSize); i++) {
+                chunk.add(new CreateProductRequest("category-" + (i % 10), nameOf(i)));
+            }
+            productBulkService.createAll(chunk);
+        }
+    }
+
+    private static String nameOf(int index) {
+        return ADJECTIVES[index % ADJECTIVES.length] + " "
+                + MATERIALS[(index / ADJECTIVES.length) % MATERIALS.length] + " "
+                + ITEMS[(index / (ADJECTIVES.length * MATERIALS.length)) % ITEMS.length] + " " + index;
+    }
+}
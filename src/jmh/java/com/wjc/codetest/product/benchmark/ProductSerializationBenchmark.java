@@ -0,0 +1,108 @@
+package com.wjc.codetest.product.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.wjc.codetest.product.model.response.ProductListResponse;
+import com.wjc.codetest.product.model.response.ProductResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/*
+    목록 응답 직렬화 벤치마크: JSON vs CBOR vs Smile, 압축 없음 vs gzip
+
+        - POST /product/list 한 페이지(pageSize건)를 각 포맷으로 직렬화(+ gzip)하는 시간과 전송 바이트를 비교합니다.
+        - 전송 바이트는 입력이 고정이라 매번 같으므로 trial 시작 시 한 번 계산해서 로그로 남깁니다. (product serialization wire bytes 줄)
+        - gzip은 Tomcat 압축과 같은 java.util.zip 기본 레벨입니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductSerializationBenchmark {
+
+    // jmh 소스셋에는 lombok 처리기가 없으므로 @Slf4j 대신 직접 만듭니다.
+    private static final Logger log = LoggerFactory.getLogger(ProductSerializationBenchmark.class);
+
+    private static final String[] CATEGORIES = {"furniture", "lighting", "kitchen", "outdoor", "bath"};
+
+    @Param({"20", "500"})
+    private int pageSize;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private ObjectMapper mapper;
+    private ProductListResponse page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mapper = switch (format) {
+            case "json" -> new ObjectMapper();
+            case "cbor" -> new CBORMapper();
+            case "smile" -> new SmileMapper();
+            default -> throw new IllegalArgumentException("unknown format: " + format);
+        };
+
+        List<ProductResponse> products = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            long id = 1_000_000L + i;
+            products.add(new ProductResponse(id, CATEGORIES[i % CATEGORIES.length], "classic walnut desk " + id, (long) (i % 7)));
+        }
+        page = new ProductListResponse(products, 40, 40L * pageSize, 3);
+
+        try {
+            log.info("product serialization wire bytes :: format={}, pageSize={}, plain={}, gzip={}",
+                    format, pageSize, serialize(), serializeGzip());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public int serialize() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        mapper.writeValue(out, page);
+        return out.count;
+    }
+
+    @Benchmark
+    public int serializeGzip() throws IOException {
+        CountingOutputStream counter = new CountingOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(counter)) {
+            mapper.writeValue(out, page);
+        }
+        return counter.count;
+    }
+
+    // 본문을 버리고 크기만 셉니다. (버퍼 복사 비용이 측정에 섞이지 않도록)
+    private static final class CountingOutputStream extends OutputStream {
+
+        private int count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
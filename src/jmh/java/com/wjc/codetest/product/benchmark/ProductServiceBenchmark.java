@@ -0,0 +1,141 @@
+package com.wjc.codetest.product.benchmark;
+
+import com.wjc.codetest.CodeTestApplication;
+import com.wjc.codetest.product.cache.CategorySnapshot;
+import com.wjc.codetest.product.model.request.CreateProductRequest;
+import com.wjc.codetest.product.model.request.GetProductListRequest;
+import com.wjc.codetest.product.model.request.PagingMode;
+import com.wjc.codetest.product.model.request.ProductCursor;
+import com.wjc.codetest.product.model.response.ProductListResponse;
+import com.wjc.codetest.product.model.response.ProductResponse;
+import com.wjc.codetest.product.service.ProductBulkService;
+import com.wjc.codetest.product.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+    ProductService 조회 경로 벤치마크
+
+        - 웹 서버 없이 애플리케이션 컨텍스트만 띄우고, 전용 H2 인메모리 DB에 datasetSize 건을 CATEGORIES 개 카테고리로 나눠 적재합니다.
+        - shallow/deep 벤치마크는 같은 카테고리의 첫 페이지와 마지막 페이지를 비교해서 offset 깊이에 따른 비용을 보여줍니다.
+        - 같은 깊이를 CURSOR 모드로도 측정해서 keyset 조회와 나란히 비교할 수 있게 했습니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductServiceBenchmark {
+
+    private static final int CATEGORIES = 10;
+    private static final int PAGE_SIZE = 20;
+    private static final int SEED_CHUNK = 5_000;
+
+    @Param({"10000"})
+    private int datasetSize;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+
+    private List<Long> productIds;
+    private String category;
+    private int deepPage;
+    private String deepCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CodeTestApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN"
+                )
+                .run();
+        productService = context.getBean(ProductService.class);
+        seed(context.getBean(ProductBulkService.class));
+
+        category = categoryOf(0);
+        int rowsPerCategory = datasetSize / CATEGORIES;
+        deepPage = Math.max(rowsPerCategory / PAGE_SIZE - 1, 0);
+
+        // 마지막 페이지 직전 위치의 커서를 만들어서 OFFSET deep 페이지와 같은 위치를 keyset으로 읽게 합니다.
+        List<Long> categoryIds = new ArrayList<>();
+        for (int i = 0; i < productIds.size(); i += CATEGORIES) {
+            categoryIds.add(productIds.get(i));
+        }
+        long lastIdBeforeDeepPage = categoryIds.get(Math.max(deepPage * PAGE_SIZE - 1, 0));
+        deepCursor = new ProductCursor(category, lastIdBeforeDeepPage).encode();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ProductResponse getProductById() {
+        Long productId = productIds.get(ThreadLocalRandom.current().nextInt(productIds.size()));
+        return productService.getProductById(productId);
+    }
+
+    @Benchmark
+    public ProductListResponse getListByCategoryShallowPage() {
+        return productService.getListByCategory(listRequest(PagingMode.OFFSET, 0, null));
+    }
+
+    @Benchmark
+    public ProductListResponse getListByCategoryDeepPage() {
+        return productService.getListByCategory(listRequest(PagingMode.OFFSET, deepPage, null));
+    }
+
+    @Benchmark
+    public ProductListResponse getListByCategoryDeepCursor() {
+        return productService.getListByCategoryAfter(listRequest(PagingMode.CURSOR, 0, deepCursor));
+    }
+
+    @Benchmark
+    public CategorySnapshot getUniqueCategories() {
+        return productService.getUniqueCategories();
+    }
+
+    // i번째 상품을 i % CATEGORIES 카테고리에 넣으므로 productIds를 CATEGORIES 간격으로 건너뛰면 한 카테고리의 id 순서가 됩니다.
+    private void seed(ProductBulkService productBulkService) {
+        productIds = new ArrayList<>(datasetSize);
+        for (int from = 0; from < datasetSize; from += SEED_CHUNK) {
+            List<CreateProductRequest> chunk = new ArrayList<>(SEED_CHUNK);
+            for (int i = from; i < Math.min(from + SEED_CHUNK, datasetSize); i++) {
+                chunk.add(new CreateProductRequest(categoryOf(i % CATEGORIES), "product-" + i));
+            }
+            productBulkService.createAll(chunk).forEach(product -> productIds.add(product.id()));
+        }
+    }
+
+    private GetProductListRequest listRequest(PagingMode mode, int page, String cursor) {
+        GetProductListRequest request = new GetProductListRequest();
+        request.setCategory(category);
+        request.setPage(page);
+        request.setSize(PAGE_SIZE);
+        request.setMode(mode);
+        request.setCursor(cursor);
+        return request;
+    }
+
+    private static String categoryOf(int index) {
+        return "category-" + index;
+    }
+}
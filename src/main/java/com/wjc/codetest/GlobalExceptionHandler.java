@@ -1,6 +1,11 @@
 package com.wjc.codetest;
 
+import com.wjc.codetest.product.exception.ProductNotFoundException;
+import com.wjc.codetest.product.exception.ProductPreconditionFailedException;
+import com.wjc.codetest.product.exception.ProductSubscriptionLimitExceededException;
+import com.wjc.codetest.product.exception.ProductVersionConflictException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -37,6 +42,72 @@ public class GlobalExceptionHandler {
 
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
     }
+
+    @ResponseBody
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(value = HttpStatus.BAD_REQUEST)
+    public ResponseEntity<String> illegalArgumentException(IllegalArgumentException e) {
+        log.warn("status :: {}, errorType :: {}, errorCause :: {}",
+                HttpStatus.BAD_REQUEST,
+                "illegalArgumentException",
+                e.getMessage()
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+
+    @ResponseBody
+    @ExceptionHandler(ProductNotFoundException.class)
+    @ResponseStatus(value = HttpStatus.NOT_FOUND)
+    public ResponseEntity<String> productNotFoundException(ProductNotFoundException e) {
+        log.warn("status :: {}, errorType :: {}, errorCause :: {}",
+                HttpStatus.NOT_FOUND,
+                "productNotFoundException",
+                e.getMessage()
+        );
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+    }
+
+    // 버전 불일치: 본문 version 비교와 flush 시점의 @Version 검사(일괄 수정) 모두 409로 응답합니다.
+    @ResponseBody
+    @ExceptionHandler({ProductVersionConflictException.class, OptimisticLockingFailureException.class})
+    @ResponseStatus(value = HttpStatus.CONFLICT)
+    public ResponseEntity<String> versionConflictException(RuntimeException e) {
+        log.warn("status :: {}, errorType :: {}, errorCause :: {}",
+                HttpStatus.CONFLICT,
+                "versionConflictException",
+                e.getMessage()
+        );
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+
+    @ResponseBody
+    @ExceptionHandler(ProductPreconditionFailedException.class)
+    @ResponseStatus(value = HttpStatus.PRECONDITION_FAILED)
+    public ResponseEntity<String> preconditionFailedException(ProductPreconditionFailedException e) {
+        log.warn("status :: {}, errorType :: {}, errorCause :: {}",
+                HttpStatus.PRECONDITION_FAILED,
+                "preconditionFailedException",
+                e.getMessage()
+        );
+
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+    }
+
+    @ResponseBody
+    @ExceptionHandler(ProductSubscriptionLimitExceededException.class)
+    @ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseEntity<String> subscriptionLimitExceededException(ProductSubscriptionLimitExceededException e) {
+        log.warn("status :: {}, errorType :: {}, errorCause :: {}",
+                HttpStatus.SERVICE_UNAVAILABLE,
+                "subscriptionLimitExceededException",
+                e.getMessage()
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+    }
 }
 /*
     [문제 및 의견] 응답 형태의 개선점 및 확장을 고려했을 때 고려해볼 점
@@ -0,0 +1,78 @@
+package com.wjc.codetest.global.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/*
+    같은 키로 동시에 들어온 호출을 하나로 합치는 single-flight
+
+        - 처음 들어온 호출(leader)만 loader를 실행하고, 실행 중에 같은 키로 들어온 호출(follower)은 그 결과를 같이 받습니다.
+          loader가 예외를 던지면 follower도 같은 예외를 받습니다.
+        - 결과를 보관하지 않습니다. loader가 끝나는 즉시 키를 지우므로 이후 호출은 다시 실행됩니다. (캐시 아님)
+        - follower는 결과를 기다리는 동안 커넥션을 잡지 않도록 loader 바깥(트랜잭션 밖)에서 호출해야 합니다.
+        - 지표: singleflight.calls{name, result=executed|coalesced}, singleflight.in.flight{name}
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter coalesced;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.executed = Counter.builder("singleflight.calls")
+                .tag("name", name)
+                .tag("result", "executed")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("singleflight.calls")
+                .tag("name", name)
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+        Gauge.builder("singleflight.in.flight", inFlight, Map::size)
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> leader = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        executed.increment();
+        try {
+            V value = loader.get();
+            // 키를 먼저 지워서, 완료 이후에 들어온 호출은 끝난 결과를 재사용하지 않고 새로 실행하게 합니다.
+            inFlight.remove(key, leader);
+            leader.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, leader);
+            leader.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
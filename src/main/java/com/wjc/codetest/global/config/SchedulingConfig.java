@@ -0,0 +1,10 @@
+package com.wjc.codetest.global.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// 인메모리 파생 구조(CategoryCache 등)의 주기적 재적재에 사용합니다.
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
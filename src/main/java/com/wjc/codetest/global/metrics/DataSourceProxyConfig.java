@@ -0,0 +1,48 @@
+package com.wjc.codetest.global.metrics;
+
+import net.ttddyy.dsproxy.listener.logging.SLF4JLogLevel;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+/*
+    DataSource를 datasource-proxy로 감싸서 JDBC 실행 단위로 통계/로그를 남깁니다.
+
+        - Hibernate 뿐 아니라 Flyway, JdbcTemplate 등 같은 DataSource를 쓰는 모든 실행이 대상입니다.
+        - slowQueryThresholdMs 이상 걸린 쿼리는 바인드 파라미터와 함께 WARN 로그로 남깁니다.
+ */
+@Configuration
+public class DataSourceProxyConfig {
+
+    @Bean
+    public SqlStatementListener sqlStatementListener(@Value("${product.sql.log-sample-rate:0.0}") double sampleRate) {
+        return new SqlStatementListener(sampleRate);
+    }
+
+    // BeanPostProcessor는 다른 빈보다 먼저 만들어지므로 static으로 선언하고, 리스너는 DataSource 생성 시점에 꺼내옵니다.
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(
+            ObjectProvider<SqlStatementListener> sqlStatementListener,
+            @Value("${product.sql.slow-query-threshold-ms:100}") long slowQueryThresholdMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(sqlStatementListener.getObject())
+                        .logSlowQueryBySlf4j(slowQueryThresholdMs, TimeUnit.MILLISECONDS, SLF4JLogLevel.WARN)
+                        .build();
+            }
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package com.wjc.codetest.global.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/*
+    요청당 쿼리 수(http.server.requests.queries)와 DB 시간(http.server.requests.db) 지표
+
+        - 엔드포인트(uri 템플릿)별 분포를 남겨서 N+1 같은 쿼리 수 회귀를 대시보드/알람으로 잡을 수 있게 합니다.
+        - uri 태그는 http.server.requests와 같은 템플릿 값을 사용하고, 매핑되지 않은 요청은 한 값으로 묶어 카디널리티를 제한합니다.
+        - 한 요청이 statementBudget을 넘는 쿼리를 실행하면 경고 로그를 남깁니다. (운영에서는 차단하지 않고 테스트에서 강제)
+ */
+@Slf4j
+@Component
+public class QueryCountMetricsFilter extends OncePerRequestFilter {
+
+    public static final String QUERIES_METRIC_NAME = "http.server.requests.queries";
+    public static final String DB_TIME_METRIC_NAME = "http.server.requests.db";
+    private static final String UNMATCHED_URI = "UNMATCHED";
+
+    private final MeterRegistry meterRegistry;
+    private final long statementBudget;
+
+    public QueryCountMetricsFilter(MeterRegistry meterRegistry,
+                                   @Value("${product.sql.statement-budget:10}") long statementBudget) {
+        this.meterRegistry = meterRegistry;
+        this.statementBudget = statementBudget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementStats.reset();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            record(request, SqlStatementStats.statements(), SqlStatementStats.elapsedMillis());
+            SqlStatementStats.clear();
+        }
+    }
+
+    private void record(HttpServletRequest request, long statements, long elapsedMillis) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : UNMATCHED_URI;
+
+        DistributionSummary.builder(QUERIES_METRIC_NAME)
+                .description("SQL statements executed per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statements);
+        Timer.builder(DB_TIME_METRIC_NAME)
+                .description("Total database time per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(Duration.ofMillis(elapsedMillis));
+
+        if (statements > statementBudget) {
+            log.warn("sql statement budget exceeded :: method={}, uri={}, statements={}, budget={}, dbTime={}ms",
+                    request.getMethod(), uri, statements, statementBudget, elapsedMillis);
+        }
+    }
+}
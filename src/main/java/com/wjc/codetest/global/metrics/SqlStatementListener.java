@@ -0,0 +1,48 @@
+package com.wjc.codetest.global.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    datasource-proxy를 지나가는 모든 JDBC 실행을 집계합니다.
+
+        - 요청 스레드 통계(SqlStatementStats)에 실행 횟수와 소요 시간을 더합니다.
+        - 전체 누적 실행 횟수는 스레드와 무관하게 세므로, 테스트에서 "이 엔드포인트는 쿼리 N번 이하" 같은 검증에 사용합니다.
+        - 전체 SQL이 필요할 때는 sampleRate(0.0~1.0) 비율만큼만 로그로 남깁니다. 느린 쿼리는 slow query 리스너가 따로 남깁니다.
+ */
+@Slf4j
+public class SqlStatementListener implements QueryExecutionListener {
+
+    private final AtomicLong totalStatements = new AtomicLong();
+    private final double sampleRate;
+
+    public SqlStatementListener(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        totalStatements.incrementAndGet();
+        SqlStatementStats.record(execInfo.getElapsedTime());
+
+        if (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            for (QueryInfo queryInfo : queryInfoList) {
+                log.info("sampled sql :: elapsed={}ms, batch={}, query={}", execInfo.getElapsedTime(), execInfo.isBatch(), queryInfo.getQuery());
+            }
+        }
+    }
+
+    public long totalStatements() {
+        return totalStatements.get();
+    }
+}
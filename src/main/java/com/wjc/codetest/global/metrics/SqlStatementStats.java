@@ -0,0 +1,42 @@
+package com.wjc.codetest.global.metrics;
+
+/*
+    요청(스레드) 단위 SQL 실행 통계: 실행 횟수(JDBC 왕복 기준, 배치 1회 = 1)와 DB 누적 시간
+
+        - QueryCountMetricsFilter가 요청 시작 시 초기화하고, 종료 시 값을 지표로 기록합니다.
+        - 요청 스레드에서 실행된 쿼리만 셉니다. (StreamingResponseBody처럼 비동기 스레드에서 실행되는 쿼리는 제외)
+ */
+public final class SqlStatementStats {
+
+    private static final ThreadLocal<long[]> STATS = ThreadLocal.withInitial(() -> new long[2]);
+
+    private static final int STATEMENTS = 0;
+    private static final int ELAPSED_MILLIS = 1;
+
+    private SqlStatementStats() {
+    }
+
+    public static void reset() {
+        long[] stats = STATS.get();
+        stats[STATEMENTS] = 0L;
+        stats[ELAPSED_MILLIS] = 0L;
+    }
+
+    public static void record(long elapsedMillis) {
+        long[] stats = STATS.get();
+        stats[STATEMENTS]++;
+        stats[ELAPSED_MILLIS] += elapsedMillis;
+    }
+
+    public static long statements() {
+        return STATS.get()[STATEMENTS];
+    }
+
+    public static long elapsedMillis() {
+        return STATS.get()[ELAPSED_MILLIS];
+    }
+
+    public static void clear() {
+        STATS.remove();
+    }
+}
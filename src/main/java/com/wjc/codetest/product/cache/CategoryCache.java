@@ -0,0 +1,177 @@
+package com.wjc.codetest.product.cache;
+
+import com.wjc.codetest.product.model.event.ProductChangedEvent;
+import com.wjc.codetest.product.model.response.ProductCategoryStatsResponse;
+import com.wjc.codetest.product.repository.CategoryCount;
+import com.wjc.codetest.product.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    카테고리 사전 + 카테고리별 상품 수 캐시
+
+        - 기동 시 GROUP BY 한 번으로 전체 카테고리와 상품 수를 적재하고,
+          이후에는 커밋된 생성/수정/삭제 이벤트로 카테고리별 참조 카운트를 증감합니다.
+        - 카운트가 0이 되는 순간 카테고리를 사전에서 제거하므로, 마지막 상품이 다른 카테고리로 옮겨지거나
+          삭제된 경우에도 목록 조회는 DB 없이 정확한 결과를 돌려줍니다.
+        - 카테고리 목록은 멤버십(카테고리 추가/제거)이 바뀔 때만 스냅샷을 다시 만들고 etag를 갱신합니다.
+        - category가 null인 상품은 사전에 포함하지 않습니다. (ConcurrentHashMap은 null 키를 허용하지 않음)
+        - 모든 이벤트가 변경 전 카테고리를 담고 있으므로(단건 수정/삭제는 같은 트랜잭션에서 변경 전 행을 먼저 읽음)
+          카운트와 목록은 커밋 직후 바로 정확합니다. 카테고리가 그대로인 수정은 카운트를 바꾸지 않습니다.
+        - 요청이 없어도 full-reconcile-interval 주기로 GROUP BY 결과와 맞춥니다. (다른 경로의 DB 변경, 누락된 이벤트 보정)
+          맞추면서 달라진 카테고리가 있으면 그 수를 로그로 남깁니다.
+        - GROUP BY 이후 결과를 넣기 전에 커밋된 쓰기가 있으면 그 증감이 덮어써질 수 있으므로,
+          재적재 도중 카운트가 바뀌었으면 reconcile-delay 뒤에 한 번 더 맞춥니다. (주기 재적재와 재요청 재적재 모두)
+        - 카테고리별 상품 수는 /product/category/stats 로 DB 조회 없이 제공합니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryCache {
+
+    private final ProductRepository productRepository;
+
+    private final ConcurrentMap<String, Long> counts = new ConcurrentHashMap<>();
+    private final AtomicLong membershipVersion = new AtomicLong();
+    private final AtomicLong adjustments = new AtomicLong();
+    private final AtomicBoolean reconcileRequested = new AtomicBoolean();
+    private volatile CategorySnapshot snapshot;
+    private volatile Instant lastReconciledAt;
+
+    @PostConstruct
+    public void reload() {
+        Map<String, Long> loaded = new HashMap<>();
+        for (CategoryCount row : productRepository.countGroupByCategory()) {
+            if (row.getCategory() != null) {
+                loaded.put(row.getCategory(), row.getProductCount());
+            }
+        }
+
+        int drifted = (int) counts.keySet().stream().filter(category -> !loaded.containsKey(category)).count();
+        boolean membershipChanged = counts.keySet().retainAll(loaded.keySet());
+        for (Map.Entry<String, Long> entry : loaded.entrySet()) {
+            Long previous = counts.put(entry.getKey(), entry.getValue());
+            if (previous == null) {
+                membershipChanged = true;
+            }
+            if (!entry.getValue().equals(previous)) {
+                drifted++;
+            }
+        }
+        if (membershipChanged) {
+            membershipVersion.incrementAndGet();
+        }
+        lastReconciledAt = Instant.now();
+        if (drifted > 0) {
+            log.info("category cache reconciled :: categories={}, drifted={}", loaded.size(), drifted);
+        } else {
+            log.debug("category cache reconciled :: categories={}", loaded.size());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${product.category-cache.full-reconcile-interval:5m}",
+            initialDelayString = "${product.category-cache.full-reconcile-interval:5m}")
+    public void reconcile() {
+        reloadUnlessRaced();
+    }
+
+    @Scheduled(fixedDelayString = "${product.category-cache.reconcile-delay:1s}",
+            initialDelayString = "${product.category-cache.reconcile-delay:1s}")
+    public void reconcileIfRequested() {
+        if (!reconcileRequested.getAndSet(false)) {
+            return;
+        }
+        reloadUnlessRaced();
+    }
+
+    // 재적재 도중 이벤트로 카운트가 바뀌었으면 덮어썼을 수 있으므로 다음 reconcileIfRequested에서 다시 맞춥니다.
+    private void reloadUnlessRaced() {
+        long adjustmentsBefore = adjustments.get();
+        reload();
+        if (adjustments.get() != adjustmentsBefore) {
+            reconcileRequested.set(true);
+        }
+    }
+
+    public long count(String category) {
+        if (category == null) {
+            return 0L;
+        }
+        return counts.getOrDefault(category, 0L);
+    }
+
+    // 카테고리 이름순 카테고리별 상품 수
+    public ProductCategoryStatsResponse stats() {
+        List<ProductCategoryStatsResponse.CategoryStat> stats = new ArrayList<>(counts.size());
+        long totalProducts = 0L;
+        for (Map.Entry<String, Long> entry : new TreeMap<>(counts).entrySet()) {
+            stats.add(new ProductCategoryStatsResponse.CategoryStat(entry.getKey(), entry.getValue()));
+            totalProducts += entry.getValue();
+        }
+        return new ProductCategoryStatsResponse(stats, totalProducts, lastReconciledAt);
+    }
+
+    public CategorySnapshot snapshot() {
+        long version = membershipVersion.get();
+        CategorySnapshot current = snapshot;
+        if (current != null && current.version() == version) {
+            return current;
+        }
+
+        // 버전을 먼저 읽고 키를 복사하므로, 그 사이 변경이 있었다면 다음 호출에서 버전 불일치로 다시 만들어집니다.
+        List<String> categories = counts.keySet().stream().sorted().toList();
+        CategorySnapshot rebuilt = new CategorySnapshot(categories, etagOf(categories), version);
+        snapshot = rebuilt;
+        return rebuilt;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (Objects.equals(event.previousCategory(), event.category())) {
+            return;
+        }
+        adjust(event.previousCategory(), -1L);
+        adjust(event.category(), 1L);
+    }
+
+    private void adjust(String category, long delta) {
+        if (category == null) {
+            return;
+        }
+
+        adjustments.incrementAndGet();
+        boolean[] membershipChanged = {false};
+        counts.compute(category, (key, current) -> {
+            long next = (current == null ? 0L : current) + delta;
+            membershipChanged[0] = (current != null) != (next > 0L);
+            return next > 0L ? next : null;
+        });
+        if (membershipChanged[0]) {
+            membershipVersion.incrementAndGet();
+        }
+    }
+
+    private static String etagOf(List<String> categories) {
+        String joined = String.join("\n", categories);
+        return "\"" + DigestUtils.md5DigestAsHex(joined.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
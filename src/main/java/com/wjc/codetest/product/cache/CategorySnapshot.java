@@ -0,0 +1,12 @@
+package com.wjc.codetest.product.cache;
+
+import java.util.List;
+
+/*
+    카테고리 목록의 불변 스냅샷
+
+        - etag는 목록 내용의 해시이므로 재기동이나 인스턴스가 달라도 같은 목록이면 같은 값을 가집니다.
+        - version은 스냅샷을 만든 시점의 CategoryCache 멤버십 버전으로, 재생성 여부 판단에만 사용합니다.
+ */
+public record CategorySnapshot(List<String> categories, String etag, long version) {
+}
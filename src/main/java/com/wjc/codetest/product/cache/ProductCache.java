@@ -0,0 +1,66 @@
+package com.wjc.codetest.product.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wjc.codetest.product.model.event.ProductChangedEvent;
+import com.wjc.codetest.product.model.response.ProductResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Function;
+
+/*
+    단건 조회용 read-through 캐시
+
+        - 조회 트래픽이 일부 상품에 몰리는 특성상 빈도 기반 축출(W-TinyLFU)을 쓰는 Caffeine으로 크기를 제한합니다.
+        - 수정/삭제는 커밋 이후 이벤트로 무효화합니다. 로딩 중인 키의 무효화는 Caffeine이 로딩 완료까지 대기시키므로
+          커밋 전 값을 읽은 로더가 무효화 이후에 값을 덮어쓰지 않습니다.
+        - 엔티티가 아닌 불변 ProductResponse를 담으므로 여러 요청이 같은 인스턴스를 공유해도 안전합니다.
+        - hit/miss/eviction 지표는 /actuator/metrics 의 cache.* (name=product) 로 확인할 수 있습니다.
+ */
+@Component
+public class ProductCache {
+
+    public static final String CACHE_NAME = "product";
+
+    private final Cache<Long, ProductResponse> cache;
+
+    public ProductCache(MeterRegistry meterRegistry,
+                        @Value("${product.cache.maximum-size:10000}") long maximumSize,
+                        @Value("${product.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        Cache<Long, ProductResponse> caffeine = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.cache = CaffeineCacheMetrics.monitor(meterRegistry, caffeine, CACHE_NAME);
+    }
+
+    // loader가 예외를 던지면 캐시에 남기지 않고 그대로 전파합니다. (없는 상품은 캐싱하지 않음)
+    public ProductResponse get(Long productId, Function<Long, ProductResponse> loader) {
+        return cache.get(productId, loader);
+    }
+
+    // 없으면 null (로딩하지 않음)
+    public ProductResponse getIfPresent(Long productId) {
+        return cache.getIfPresent(productId);
+    }
+
+    // 있는 것만 돌려줍니다. 없는 키를 로딩하지는 않습니다. (일괄 조회용)
+    public Map<Long, ProductResponse> getAllPresent(Iterable<Long> productIds) {
+        return cache.getAllPresent(productIds);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() != ProductChangedEvent.ChangeType.CREATED) {
+            cache.invalidate(event.productId());
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.wjc.codetest.product.category;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+    카테고리 사전 (categories 테이블 <-> 메모리 양방향 맵)
+
+        - products에는 카테고리 이름 대신 categories.category_id(정수)만 저장합니다.
+          이름 <-> id 변환은 Product.category의 CategoryIdConverter가 이 사전으로 하므로,
+          repository/service/api는 지금처럼 카테고리 이름(String)만 다룹니다.
+        - 기동 시 categories 전체를 한 번 적재하고, 이후 조회/변환은 DB 없이 메모리에서 처리합니다.
+        - 새 카테고리는 쓰기 트랜잭션을 시작하기 전에 register()로 등록합니다. 등록은 별도 트랜잭션으로 바로 커밋하므로,
+          상품 쓰기가 롤백되어도 사전의 id는 항상 DB에 있는 값입니다. (쓰이지 않는 카테고리 행은 남겨둡니다)
+          쓰기 트랜잭션 안에서 부르면 커넥션을 하나 더 잡게 되어, 풀이 가득 찼을 때 서로 기다리다 멈출 수 있습니다.
+        - 변환(idOf)은 등록하지 않습니다. 없는 카테고리로 목록을 조회해도 사전이 늘어나지 않게 하기 위해서이고,
+          없는 이름은 UNKNOWN_ID로 바뀌어 어떤 행과도 일치하지 않습니다. (등록 없이 쓰면 외래 키 제약으로 실패)
+        - 다른 인스턴스가 등록한 카테고리는 메모리에 없으므로, 맵에서 못 찾으면 DB를 한 번 확인하고 채워 넣습니다.
+          DB에도 없던 이름은 잠시 기억해 두어, 없는 카테고리 조회가 반복되어도 매번 DB로 가지 않게 합니다.
+          (이 인스턴스가 등록하면 바로 지우고, 다른 인스턴스가 등록한 경우는 unknown-name-ttl 이후에 보입니다)
+ */
+@Slf4j
+@Component
+public class CategoryDictionary {
+
+    public static final int UNKNOWN_ID = -1;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate registerTransaction;
+
+    private final ConcurrentMap<String, Integer> idsByName = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, String> namesById = new ConcurrentHashMap<>();
+    // DB에도 없던 이름 (값은 쓰지 않음)
+    private final Cache<String, Boolean> unknownNames;
+    // 같은 이름을 동시에 등록할 때 INSERT가 한 번만 나가도록 등록만 직렬화합니다. (새 카테고리는 드뭅니다)
+    // 등록 중에는 DB I/O가 있으므로 synchronized 대신 ReentrantLock을 써서 가상 스레드가 캐리어 스레드에 고정되지 않게 합니다.
+    private final ReentrantLock registerLock = new ReentrantLock();
+
+    public CategoryDictionary(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${product.category-dictionary.unknown-name-ttl:10s}") Duration unknownNameTtl,
+                              @Value("${product.category-dictionary.unknown-name-maximum-size:10000}") long unknownNameMaximumSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.registerTransaction = new TransactionTemplate(transactionManager);
+        this.registerTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.unknownNames = Caffeine.newBuilder()
+                .maximumSize(unknownNameMaximumSize)
+                .expireAfterWrite(unknownNameTtl)
+                .build();
+    }
+
+    @PostConstruct
+    public void load() {
+        jdbcTemplate.query("SELECT category_id, name FROM categories",
+                rs -> put(rs.getInt("category_id"), rs.getString("name")));
+        log.info("category dictionary loaded :: categories={}", namesById.size());
+    }
+
+    // 쓰기 전에 호출합니다. 없는 카테고리면 categories에 추가합니다. (null은 카테고리 없음이므로 건너뜀)
+    public void register(String name) {
+        if (name == null || idsByName.containsKey(name)) {
+            return;
+        }
+        registerLock.lock();
+        try {
+            if (idsByName.containsKey(name)) {
+                return;
+            }
+            int registered = registerTransaction.execute(status -> insertOrFind(name));
+            put(registered, name);
+        } finally {
+            registerLock.unlock();
+        }
+    }
+
+    public void registerAll(Collection<String> names) {
+        names.stream().distinct().forEach(this::register);
+    }
+
+    // 이름 -> id 변환. 사전에 없는 이름은 UNKNOWN_ID
+    public int idOf(String name) {
+        Integer id = idsByName.get(name);
+        if (id != null) {
+            return id;
+        }
+        if (unknownNames.getIfPresent(name) != null) {
+            return UNKNOWN_ID;
+        }
+        List<Integer> found = jdbcTemplate.queryForList("SELECT category_id FROM categories WHERE name = ?", Integer.class, name);
+        if (found.isEmpty()) {
+            unknownNames.put(name, Boolean.TRUE);
+            return UNKNOWN_ID;
+        }
+        put(found.get(0), name);
+        return found.get(0);
+    }
+
+    // id -> 이름 변환. products의 category_id는 외래 키이므로 DB에도 없으면 잘못된 id입니다.
+    public String nameOf(int id) {
+        String name = namesById.get(id);
+        if (name != null) {
+            return name;
+        }
+        List<String> found = jdbcTemplate.queryForList("SELECT name FROM categories WHERE category_id = ?", String.class, id);
+        if (found.isEmpty()) {
+            throw new IllegalStateException("unknown category id: " + id);
+        }
+        put(id, found.get(0));
+        return found.get(0);
+    }
+
+    // 다른 인스턴스가 먼저 등록했으면(unique 위반) 그 id를 읽어옵니다.
+    private int insertOrFind(String name) {
+        try {
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        "INSERT INTO categories (name) VALUES (?)", Statement.RETURN_GENERATED_KEYS);
+                statement.setString(1, name);
+                return statement;
+            }, keyHolder);
+            return Objects.requireNonNull(keyHolder.getKey()).intValue();
+        } catch (DuplicateKeyException e) {
+            return jdbcTemplate.queryForObject("SELECT category_id FROM categories WHERE name = ?", Integer.class, name);
+        }
+    }
+
+    private void put(int id, String name) {
+        namesById.put(id, name);
+        idsByName.put(name, id);
+        unknownNames.invalidate(name);
+    }
+}
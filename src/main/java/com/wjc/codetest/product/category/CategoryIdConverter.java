@@ -0,0 +1,33 @@
+package com.wjc.codetest.product.category;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.ObjectProvider;
+
+/*
+    Product.category(카테고리 이름) <-> products.category_id 변환
+
+        - 엔티티 저장뿐 아니라 JPQL 조건/UPDATE 파라미터(p.category = :category)와 projection 조회에도 적용되므로,
+          ProductRepository의 메소드 시그니처와 쿼리는 카테고리 이름 기준 그대로 둡니다.
+        - Hibernate가 Spring bean container로 만들기 때문에 주입을 받을 수 있지만,
+          EntityManagerFactory 생성 도중에 만들어지므로 사전은 처음 변환할 때 꺼냅니다.
+ */
+@Converter
+public class CategoryIdConverter implements AttributeConverter<String, Integer> {
+
+    private final ObjectProvider<CategoryDictionary> categoryDictionary;
+
+    public CategoryIdConverter(ObjectProvider<CategoryDictionary> categoryDictionary) {
+        this.categoryDictionary = categoryDictionary;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String category) {
+        return category == null ? null : categoryDictionary.getObject().idOf(category);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer categoryId) {
+        return categoryId == null ? null : categoryDictionary.getObject().nameOf(categoryId);
+    }
+}
@@ -1,16 +1,37 @@
 package com.wjc.codetest.product.controller;
 
+import com.wjc.codetest.product.cache.CategorySnapshot;
 import com.wjc.codetest.product.model.request.CreateProductRequest;
 import com.wjc.codetest.product.model.request.GetProductListRequest;
-import com.wjc.codetest.product.model.domain.Product;
+import com.wjc.codetest.product.model.request.PagingMode;
 import com.wjc.codetest.product.model.request.UpdateProductRequest;
+import com.wjc.codetest.product.model.response.ProductCategoryStatsResponse;
+import com.wjc.codetest.product.model.response.ProductChangeFeedResponse;
+import com.wjc.codetest.product.model.response.ProductImportResponse;
 import com.wjc.codetest.product.model.response.ProductListResponse;
+import com.wjc.codetest.product.model.response.ProductLookupResponse;
+import com.wjc.codetest.product.model.response.ProductResponse;
+import com.wjc.codetest.product.model.response.ProductTypeaheadResponse;
+import com.wjc.codetest.product.service.ProductBulkService;
+import com.wjc.codetest.product.service.ProductChangeFeedService;
+import com.wjc.codetest.product.service.ProductExportService;
+import com.wjc.codetest.product.service.ProductImportService;
+import com.wjc.codetest.product.service.ProductLookupService;
+import com.wjc.codetest.product.service.ProductSearchService;
+import com.wjc.codetest.product.service.ProductSubscriptionService;
 import com.wjc.codetest.product.service.ProductService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.List;
 /*
     ps. 해당 클래스에 있는 메소드의 전반적인 공통 문제를 상위에 코멘트합니다.
@@ -62,7 +83,20 @@ import java.util.List;
  */
 @RequiredArgsConstructor
 public class ProductController {
+    private static final String PREFER = "Prefer";
+    private static final String PREFERENCE_APPLIED = "Preference-Applied";
+    private static final String RESPOND_ASYNC = "respond-async";
+    // 목록 응답은 Accept로 JSON(기본) 대신 바이너리 포맷(CBOR, Smile)을 고를 수 있습니다.
+    private static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
     private final ProductService productService;
+    private final ProductBulkService productBulkService;
+    private final ProductExportService productExportService;
+    private final ProductImportService productImportService;
+    private final ProductLookupService productLookupService;
+    private final ProductSearchService productSearchService;
+    private final ProductChangeFeedService productChangeFeedService;
+    private final ProductSubscriptionService productSubscriptionService;
 
     /*
         [보완 의견]
@@ -74,12 +108,17 @@ public class ProductController {
             이에 관련해서 아래의 목록 조회 메소드와 비교해보시면 좋을 것 같습니다.
      */
     @GetMapping(value = "/get/product/by/{productId}")
-    public ResponseEntity<Product> getProductById(@PathVariable(name = "productId") Long productId){
-        Product product = productService.getProductById(productId);
+    public ResponseEntity<ProductResponse> getProductById(@PathVariable(name = "productId") Long productId){
+        // ETag(버전)를 함께 내려주므로, If-None-Match가 현재 버전과 같으면 본문 없이 304로 응답됩니다.
+        ProductResponse product = productService.getProductById(productId);
         // 앞서 언급드린대로 entity 객체를 직접 리턴하고 있는 것에 대한 코멘트입니다.
         // responseDto를 통해 응답할 것을 권장드렸고 이 방법을 적용하기 위해서
         // service 레이어 메소드의 리턴타입과 dto 객체 변환 로직에 관해서도 추가로 고려해보면 좋을 것 같습니다.
-        return ResponseEntity.ok(product);
+        // write-behind 수정이 아직 반영되지 않은 상품은 버전이 없으므로 ETag 없이 응답합니다.
+        if (product.version() == null) {
+            return ResponseEntity.ok(product);
+        }
+        return ResponseEntity.ok().eTag(ProductETag.of(product.version())).body(product);
     }
 
     /*
@@ -89,8 +128,8 @@ public class ProductController {
             수정 목적과 기대효과 등은 앞서 get요청 케이스의 맥락과 동일합니다.
      */
     @PostMapping(value = "/create/product")
-    public ResponseEntity<Product> createProduct(@RequestBody CreateProductRequest dto){
-        Product product = productService.create(dto);
+    public ResponseEntity<ProductResponse> createProduct(@RequestBody CreateProductRequest dto){
+        ProductResponse product = productService.create(dto);
         // controller 메소드 이름은 createProduct,
         // service 메소드 이름은 create 입니다.
         // 물론 현재로써도 메소드 이름이 충분히 의도가 잘 표현됐긴 합니다
@@ -128,13 +167,48 @@ public class ProductController {
             부분 수정을 의도했다고 판단되어 @PatchMapping을 추천해보겠습니다.
      */
     @PostMapping(value = "/update/product")
-    public ResponseEntity<Product> updateProduct(@RequestBody UpdateProductRequest dto){
+    public ResponseEntity<ProductResponse> updateProduct(@RequestBody UpdateProductRequest dto,
+                                                         @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                         @RequestHeader(name = PREFER, required = false) String prefer){
         // url에 {productId} 같은 파라미터를 받지 않고
         // dto에 포함하여 요청하도록 설계되어있습니다.
         // 개인적으로 설계적 관점에 따라 의견이 나뉠 수 있으나 계속 언급드리는 대로 restful한 api설계 권장에 따르면
         // dto에서 id필드를 제거, url에 {productId}를 추가하고 메소드 이름을 수정해보는 것은 어떨까 합니다.
-        Product product = productService.update(dto);
-        return ResponseEntity.ok(product);
+        // If-Match가 현재 버전과 다르면 412, 본문 version이 다르면 409로 응답합니다.
+        Long ifMatchVersion = ProductETag.parseIfMatch(ifMatch);
+        // Prefer: respond-async 이고 write-behind 모드가 켜져 있으면 버퍼에 넣고 202로 바로 응답합니다. (조건부 수정 제외)
+        if (ifMatchVersion == null && prefer != null && prefer.contains(RESPOND_ASYNC) && productService.updateBehind(dto)) {
+            return ResponseEntity.accepted()
+                    .header(PREFERENCE_APPLIED, RESPOND_ASYNC)
+                    .body(new ProductResponse(dto.getId(), dto.getCategory(), dto.getName(), null));
+        }
+        ProductResponse product = productService.update(dto, ifMatchVersion);
+        return ResponseEntity.ok().eTag(ProductETag.of(product.version())).body(product);
+    }
+
+    // 여러 id 일괄 조회: 요청 순서대로, 없는 상품은 found=false 로 응답합니다.
+    @PostMapping(value = "/get/products")
+    public ResponseEntity<ProductLookupResponse> getProductsByIds(@RequestBody List<Long> productIds){
+        return ResponseEntity.ok(productLookupService.getAllById(productIds));
+    }
+
+    // 카탈로그 적재처럼 수만 건을 한 번에 보내는 경우를 위한 일괄 api (단건 api와 같은 url 규칙을 따름)
+    @PostMapping(value = "/create/products")
+    public ResponseEntity<List<ProductResponse>> createProducts(@RequestBody List<CreateProductRequest> dtos){
+        List<ProductResponse> products = productBulkService.createAll(dtos);
+        return ResponseEntity.ok(products);
+    }
+
+    @PostMapping(value = "/update/products")
+    public ResponseEntity<List<ProductResponse>> updateProducts(@RequestBody List<UpdateProductRequest> dtos){
+        List<ProductResponse> products = productService.updateAll(dtos);
+        return ResponseEntity.ok(products);
+    }
+
+    @PostMapping(value = "/delete/products")
+    public ResponseEntity<Integer> deleteProducts(@RequestBody List<Long> productIds){
+        int deletedCount = productService.deleteAllById(productIds);
+        return ResponseEntity.ok(deletedCount);
     }
 
     /*
@@ -147,14 +221,21 @@ public class ProductController {
             또한 read-only 목적의 get과 post의 경우 브라우저 내에서 동작의 차이가 존재하므로
             @PostMapping이 아니라 @GetMapping으로 수정하는 것이 좋아보입니다.
      */
-    @PostMapping(value = "/product/list")
+    @PostMapping(value = "/product/list",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
     public ResponseEntity<ProductListResponse> getProductListByCategory(@RequestBody GetProductListRequest dto){
         // 마찬가지로 메소드 이름의 일치 여부에 대한 의견입니다.
         // 카테고리별 product 리스트 조회가 목적이라면
         // getProductListByCategory() 혹은 getProductsByCategory() 정도로 수정 제안을 드려봅니다.
         // 마찬가지로 서비스 레이어와의 일치 여부도 고려해보면 좋을 것 같습니다.
-        Page<Product> productList = productService.getListByCategory(dto);
-        return ResponseEntity.ok(new ProductListResponse(productList.getContent(), productList.getTotalPages(), productList.getTotalElements(), productList.getNumber()));
+        // 같은 url이 Accept에 따라 다른 포맷으로 응답되므로 캐시가 구분하도록 Vary: Accept를 붙입니다.
+        if (dto.getMode() == PagingMode.CURSOR) {
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(productService.getListByCategoryAfter(dto));
+        }
+        if (dto.getMode() == PagingMode.SLICE) {
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(productService.getSliceByCategory(dto));
+        }
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(productService.getListByCategory(dto));
         // 예외적으로 해당 응답의 경우만 responseDTO를 사용했습니다.
         // 조회할 데이터 외에 페이지 정보까지 응답에 포함시키려는 것이 목적으로 보입니다.
         // 요청DTO는 파라미터가 많아짐에 따라 가독성을 고려해 dto로 관리했다는 저의 추측이 맞다면
@@ -164,6 +245,27 @@ public class ProductController {
         // 이 문제는 현재 코드가 정상 동작하지 않을 것이라고 쉽게 추측됩니다.
     }
 
+    // 공급사 피드 import: 본문을 스트리밍으로 읽으면서 청크 단위로 저장합니다. (Content-Type으로 포맷 구분)
+    @PostMapping(value = "/import/products", consumes = "application/x-ndjson")
+    public ResponseEntity<ProductImportResponse> importProductsFromNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(productImportService.importProducts(body, ProductImportService.Format.NDJSON));
+    }
+
+    @PostMapping(value = "/import/products", consumes = "text/csv")
+    public ResponseEntity<ProductImportResponse> importProductsFromCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(productImportService.importProducts(body, ProductImportService.Format.CSV));
+    }
+
+    // 카테고리 전체를 NDJSON(한 줄에 상품 하나)으로 스트리밍합니다.
+    // 응답 본문은 별도 스레드에서 쓰이므로 카테고리 크기와 관계없이 힙 사용량이 일정합니다.
+    @GetMapping(value = "/product/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportProductsByCategory(@RequestParam(name = "category") String category){
+        StreamingResponseBody body = out -> productExportService.exportByCategory(category, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     /*
         [보완 의견]
             데이터 목록 조회로 우선 확인됩니다.
@@ -174,12 +276,54 @@ public class ProductController {
             category는 product 내에 포함된 속성이고, product -> category 로 1 depth 만큼 넘어가므로
             /products/categories 의 형식으로 추천드렸습니다.
      */
-    @GetMapping(value = "/product/category/list")
+    @GetMapping(value = "/product/category/list",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
     public ResponseEntity<List<String>> getProductListByCategory(){
         // 마찬가지로 컨트롤러, 서비스 메소드를 통일하는 것이 어떨까 합니다.
         // 특히나 특수한 조건 하에 동작하는 메소드이므로 포괄된 의미보다는 구체적으로 명시하면 좋을 것 같습니다.
         // service의 getUniqueCategories()로 이름을 통일하는 것이 괜찮아보입니다.
-        List<String> uniqueCategories = productService.getUniqueCategories();
-        return ResponseEntity.ok(uniqueCategories);
+        // etag를 응답에 실어주면 If-None-Match가 일치하는 요청은 스프링이 본문 없이 304로 응답합니다.
+        // etag는 목록 내용의 해시라 JSON/CBOR/Smile 응답이 같은 값을 가지므로, 바이트가 같다고 약속하지 않는 weak etag로 보냅니다.
+        // (If-None-Match는 weak 비교이므로 304는 그대로 동작하고, 캐시는 Vary: Accept로 표현을 구분합니다)
+        CategorySnapshot uniqueCategories = productService.getUniqueCategories();
+        return ResponseEntity.ok()
+                .eTag("W/" + uniqueCategories.etag())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(uniqueCategories.categories());
+    }
+
+    // 카테고리별 상품 수: DB 조회 없이 증감 카운터로 응답합니다. (주기적으로 GROUP BY 결과와 맞춤)
+    @GetMapping(value = "/product/category/stats")
+    public ResponseEntity<ProductCategoryStatsResponse> getCategoryStats(){
+        return ResponseEntity.ok(productService.getCategoryStats());
+    }
+
+    // 상품명 검색: 공백으로 나눈 검색어를 모두 포함하는 상품을 관련도 순으로 돌려줍니다. (3글자 미만 검색어는 단어 prefix 일치)
+    @GetMapping(value = "/product/search")
+    public ResponseEntity<ProductListResponse> searchProducts(@RequestParam(name = "q") String query,
+                                                              @RequestParam(name = "page", defaultValue = "0") int page,
+                                                              @RequestParam(name = "size", defaultValue = "20") int size){
+        return ResponseEntity.ok(productSearchService.search(query, page, size));
+    }
+
+    // 자동완성: prefix로 시작하는 카테고리/상품명을 상품 수가 많은 순으로 limit개씩 돌려줍니다.
+    @GetMapping(value = "/product/typeahead")
+    public ResponseEntity<ProductTypeaheadResponse> typeahead(@RequestParam(name = "prefix") String prefix,
+                                                              @RequestParam(name = "limit", defaultValue = "10") int limit){
+        return ResponseEntity.ok(productSearchService.typeahead(prefix, limit));
+    }
+
+    // 변경 피드(long-poll): after 이후의 상품 변경을 돌려주고, 없으면 waitSeconds 동안 새 변경을 기다립니다.
+    @GetMapping(value = "/product/changes")
+    public DeferredResult<ProductChangeFeedResponse> getProductChanges(@RequestParam(name = "after", defaultValue = "0") long after,
+                                                                       @RequestParam(name = "limit", defaultValue = "100") int limit,
+                                                                       @RequestParam(name = "waitSeconds", defaultValue = "30") long waitSeconds){
+        return productChangeFeedService.poll(after, limit, Duration.ofSeconds(waitSeconds));
+    }
+
+    // 카테고리 구독(SSE): category 파라미터로 받은 카테고리들의 상품 변경을 커밋 직후 change 이벤트로 보냅니다.
+    @GetMapping(value = "/product/category/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeCategories(@RequestParam(name = "category") List<String> categories){
+        return productSubscriptionService.subscribe(categories);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,37 @@
+package com.wjc.codetest.product.controller;
+
+/*
+    상품 ETag <-> 버전 변환
+
+        - ETag는 낙관적 락 버전을 그대로 담은 strong ETag 입니다. ex) "3"
+        - If-Match는 strong 비교만 허용하므로 weak ETag(W/"3")와 여러 값 나열은 400으로 거절합니다.
+        - If-Match: * 는 "존재하기만 하면" 이므로 조건 없는 수정으로 처리합니다.
+ */
+final class ProductETag {
+
+    private ProductETag() {
+    }
+
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // 헤더가 없거나 * 이면 null
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.equals("*")) {
+            return null;
+        }
+        if (value.length() < 3 || !value.startsWith("\"") || !value.endsWith("\"")) {
+            throw new IllegalArgumentException("If-Match must be a single strong ETag");
+        }
+        try {
+            return Long.parseLong(value.substring(1, value.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match must be a single strong ETag");
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.wjc.codetest.product.exception;
+
+import lombok.Getter;
+
+// 요청한 상품이 없을 때 발생합니다. GlobalExceptionHandler에서 404로 응답합니다.
+@Getter
+public class ProductNotFoundException extends RuntimeException {
+
+    private final Long productId;
+
+    public ProductNotFoundException(Long productId) {
+        super("product not found :: productId=" + productId);
+        this.productId = productId;
+    }
+}
@@ -0,0 +1,17 @@
+package com.wjc.codetest.product.exception;
+
+import lombok.Getter;
+
+// If-Match 헤더의 ETag가 현재 버전과 다를 때 발생합니다. GlobalExceptionHandler에서 412로 응답합니다.
+@Getter
+public class ProductPreconditionFailedException extends RuntimeException {
+
+    private final Long productId;
+    private final Long expectedVersion;
+
+    public ProductPreconditionFailedException(Long productId, Long expectedVersion) {
+        super("product precondition failed :: productId=" + productId + ", If-Match version=" + expectedVersion);
+        this.productId = productId;
+        this.expectedVersion = expectedVersion;
+    }
+}
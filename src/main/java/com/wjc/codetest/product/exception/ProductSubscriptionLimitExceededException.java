@@ -0,0 +1,15 @@
+package com.wjc.codetest.product.exception;
+
+import lombok.Getter;
+
+// 동시 SSE 구독 수가 상한에 도달했을 때 발생합니다. GlobalExceptionHandler에서 503으로 응답합니다.
+@Getter
+public class ProductSubscriptionLimitExceededException extends RuntimeException {
+
+    private final int maxSubscribers;
+
+    public ProductSubscriptionLimitExceededException(int maxSubscribers) {
+        super("product subscription limit exceeded :: maxSubscribers=" + maxSubscribers);
+        this.maxSubscribers = maxSubscribers;
+    }
+}
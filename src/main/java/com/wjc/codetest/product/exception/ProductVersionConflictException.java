@@ -0,0 +1,17 @@
+package com.wjc.codetest.product.exception;
+
+import lombok.Getter;
+
+// 요청 본문의 version이 현재 버전과 다를 때 발생합니다. (다른 요청이 먼저 수정함) GlobalExceptionHandler에서 409로 응답합니다.
+@Getter
+public class ProductVersionConflictException extends RuntimeException {
+
+    private final Long productId;
+    private final Long expectedVersion;
+
+    public ProductVersionConflictException(Long productId, Long expectedVersion) {
+        super("product version conflict :: productId=" + productId + ", expectedVersion=" + expectedVersion);
+        this.productId = productId;
+        this.expectedVersion = expectedVersion;
+    }
+}
@@ -0,0 +1,8 @@
+package com.wjc.codetest.product.feed;
+
+import com.wjc.codetest.product.model.domain.ProductChange;
+import com.wjc.codetest.product.model.event.ProductChangedEvent;
+
+// 커밋된 outbox 행과, 행에는 남지 않는 이전 카테고리를 알기 위한 원본 이벤트
+public record CommittedProductChange(ProductChange change, ProductChangedEvent event) {
+}
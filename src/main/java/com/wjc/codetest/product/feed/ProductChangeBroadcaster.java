@@ -0,0 +1,388 @@
+package com.wjc.codetest.product.feed;
+
+import com.wjc.codetest.product.exception.ProductSubscriptionLimitExceededException;
+import com.wjc.codetest.product.model.event.ProductChangedEvent;
+import com.wjc.codetest.product.model.response.ProductChangeResponse;
+import com.wjc.codetest.product.model.response.ProductSubscriptionResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+    카테고리 구독자에게 상품 변경을 SSE로 나눠주는 broadcaster
+
+        - 커밋한 스레드(outbox 커밋 콜백)에서는 구독자별 버퍼에 넣기만 하고, 실제 전송은 전송 전용 스레드가 합니다.
+          느린 클라이언트 때문에 쓰기 트랜잭션의 커밋이 늦어지지 않습니다.
+        - 구독자 버퍼는 buffer-size로 제한합니다. 버퍼가 넘치면 (drop 정책)
+            1) 쌓여 있던 변경을 버리고, 다음 전송 때 resync 이벤트(마지막으로 전달한 changeId)를 한 번 보냅니다.
+               클라이언트는 GET /product/changes?after= 로 빠진 구간을 채우면 됩니다.
+            2) resync 전까지 들어오는 변경도 버립니다.
+            3) 넘친 횟수가 max-overflows를 넘으면 느린 구독자로 보고 연결을 끊습니다. (재연결 후 다시 시작)
+        - SseEmitter.send는 클라이언트가 읽지 않으면(TCP 윈도우가 가득 참) 막힙니다. 막힌 전송이 전송 스레드를 모두 차지하면
+          정상 구독자까지 멈추므로, send-timeout보다 오래 걸리는 전송은 그 구독자의 연결을 끊고(send_timeout)
+          막힌 스레드가 돌아올 때까지 전송 스레드를 하나 더 늘려서, 정상 구독자에게 쓰는 스레드 수는 항상 sender-threads로 유지합니다.
+        - 대상 구독자: 새 카테고리와 이전 카테고리의 구독자. (삭제는 이전 카테고리, 생성은 새 카테고리만)
+        - 구독자 수 제한은 AtomicInteger 자리 예약(compare-and-increment)으로 확인하므로, 동시에 구독해도 max-subscribers를 넘지 않습니다.
+        - 유휴 연결은 heartbeat(SSE comment)로 유지하고, 전송이 실패한 연결은 그때 정리합니다.
+        - 지표: product.subscription.subscribers, product.subscription.events{result=sent|dropped},
+                product.subscription.disconnects{reason=slow_consumer|send_failed|send_timeout}
+ */
+@Slf4j
+@Component
+public class ProductChangeBroadcaster {
+
+    private final int maxSubscribers;
+    private final int bufferSize;
+    private final int maxOverflows;
+    private final long sendTimeoutNanos;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // 예약된 구독자 자리 수. 등록 전에 늘리고 remove 또는 등록 실패 시 줄입니다.
+    private final AtomicInteger reservedSubscribers = new AtomicInteger();
+    private final ConcurrentMap<String, Set<Subscriber>> subscribersByCategory = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor sender;
+    private final int senderThreads;
+    // 막힌 전송 때문에 더 띄운 전송 스레드 수
+    private final AtomicInteger stalledSenders = new AtomicInteger();
+
+    private final Counter sent;
+    private final Counter dropped;
+    private final Counter slowConsumerDisconnects;
+    private final Counter sendFailedDisconnects;
+    private final Counter sendTimeoutDisconnects;
+
+    public ProductChangeBroadcaster(MeterRegistry meterRegistry,
+                                    @Value("${product.subscription.max-subscribers:5000}") int maxSubscribers,
+                                    @Value("${product.subscription.buffer-size:256}") int bufferSize,
+                                    @Value("${product.subscription.max-overflows:3}") int maxOverflows,
+                                    @Value("${product.subscription.sender-threads:2}") int senderThreads,
+                                    @Value("${product.subscription.send-timeout:10s}") Duration sendTimeout) {
+        this.maxSubscribers = maxSubscribers;
+        this.bufferSize = bufferSize;
+        this.maxOverflows = maxOverflows;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.senderThreads = senderThreads;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.sender = new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "product-subscription-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("product.subscription.subscribers", subscribers, Set::size).register(meterRegistry);
+        this.sent = Counter.builder("product.subscription.events").tag("result", "sent").register(meterRegistry);
+        this.dropped = Counter.builder("product.subscription.events").tag("result", "dropped").register(meterRegistry);
+        this.slowConsumerDisconnects = Counter.builder("product.subscription.disconnects")
+                .tag("reason", "slow_consumer")
+                .register(meterRegistry);
+        this.sendFailedDisconnects = Counter.builder("product.subscription.disconnects")
+                .tag("reason", "send_failed")
+                .register(meterRegistry);
+        this.sendTimeoutDisconnects = Counter.builder("product.subscription.disconnects")
+                .tag("reason", "send_timeout")
+                .register(meterRegistry);
+    }
+
+    // after: 구독 시점의 change feed 커서. 첫 이벤트(subscribed)로 전달합니다.
+    public void subscribe(Set<String> categories, long after, SseEmitter emitter) {
+        reserveSubscriber();
+
+        Subscriber subscriber = new Subscriber(Set.copyOf(categories), after, emitter);
+        try {
+            // 아직 응답이 시작되기 전이므로 emitter가 보관했다가 연결 직후 가장 먼저 내보냅니다.
+            emitter.send(SseEmitter.event()
+                    .name("subscribed")
+                    .data(new ProductSubscriptionResponse(subscriber.categories, after)));
+        } catch (IOException e) {
+            reservedSubscribers.decrementAndGet();
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            reservedSubscribers.decrementAndGet();
+            throw e;
+        }
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        subscribers.add(subscriber);
+        for (String category : subscriber.categories) {
+            subscribersByCategory.compute(category, (key, set) -> {
+                Set<Subscriber> target = set == null ? ConcurrentHashMap.newKeySet() : set;
+                target.add(subscriber);
+                return target;
+            });
+        }
+    }
+
+    // outbox 커밋 콜백: 커밋한 스레드에서 호출되므로 버퍼에 넣는 것까지만 합니다.
+    public void broadcast(List<CommittedProductChange> changes) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        for (CommittedProductChange committed : changes) {
+            ProductChangeResponse change = ProductChangeResponse.from(committed.change());
+            for (Subscriber subscriber : targetsOf(committed.event())) {
+                subscriber.offer(change);
+            }
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @Scheduled(fixedDelayString = "${product.subscription.heartbeat-interval:30s}",
+            initialDelayString = "${product.subscription.heartbeat-interval:30s}")
+    public void heartbeat() {
+        subscribers.forEach(Subscriber::requestHeartbeat);
+    }
+
+    // send-timeout보다 오래 막혀 있는 전송을 찾아 그 구독자의 연결을 끊습니다.
+    // 막힌 스레드는 연결이 닫혀 예외로 돌아올 때까지 쓸 수 없으므로, 그동안 전송 스레드를 하나 더 띄웁니다.
+    @Scheduled(fixedDelayString = "${product.subscription.stall-check-interval:1s}",
+            initialDelayString = "${product.subscription.stall-check-interval:1s}")
+    public void disconnectStalledSends() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long startedAt = subscriber.sendStartedAt;
+            if (startedAt == 0L || now - startedAt < sendTimeoutNanos || !subscriber.stalled.compareAndSet(false, true)) {
+                continue;
+            }
+            log.info("product subscription disconnected on send timeout :: categories={}", subscriber.categories);
+            sendTimeoutDisconnects.increment();
+            resizeSender(stalledSenders.incrementAndGet());
+            remove(subscriber);
+            subscriber.emitter.complete();
+        }
+    }
+
+    // 늘릴 때는 max부터, 줄일 때는 core부터 바꿔야 core <= max가 유지됩니다.
+    private synchronized void resizeSender(int stalled) {
+        int size = senderThreads + stalled;
+        if (size > sender.getMaximumPoolSize()) {
+            sender.setMaximumPoolSize(size);
+            sender.setCorePoolSize(size);
+        } else {
+            sender.setCorePoolSize(size);
+            sender.setMaximumPoolSize(size);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    // 확인과 증가를 한 번의 CAS로 하므로, 동시에 들어온 구독이 같은 빈자리를 함께 차지하지 않습니다.
+    private void reserveSubscriber() {
+        int reserved;
+        do {
+            reserved = reservedSubscribers.get();
+            if (reserved >= maxSubscribers) {
+                throw new ProductSubscriptionLimitExceededException(maxSubscribers);
+            }
+        } while (!reservedSubscribers.compareAndSet(reserved, reserved + 1));
+    }
+
+    private Collection<Subscriber> targetsOf(ProductChangedEvent event) {
+        Set<Subscriber> current = subscribersOf(event.category());
+        Set<Subscriber> previous = subscribersOf(event.previousCategory());
+        if (previous == current || previous.isEmpty() || current.isEmpty()) {
+            return previous.isEmpty() ? current : previous;
+        }
+        // 두 카테고리를 모두 구독한 클라이언트에게 같은 변경을 두 번 보내지 않습니다.
+        Set<Subscriber> targets = new HashSet<>(current);
+        targets.addAll(previous);
+        return targets;
+    }
+
+    private Set<Subscriber> subscribersOf(String category) {
+        if (category == null) {
+            return Set.of();
+        }
+        return subscribersByCategory.getOrDefault(category, Set.of());
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        reservedSubscribers.decrementAndGet();
+        subscriber.closed = true;
+        for (String category : subscriber.categories) {
+            subscribersByCategory.computeIfPresent(category, (key, set) -> {
+                set.remove(subscriber);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    private final class Subscriber {
+
+        private final Set<String> categories;
+        private final SseEmitter emitter;
+
+        // buffer, overflowed, overflows, heartbeatDue는 this로 동기화합니다.
+        private final Queue<ProductChangeResponse> buffer = new ArrayDeque<>();
+        private boolean overflowed;
+        private int overflows;
+        private boolean heartbeatDue;
+
+        // 전송 스레드에서만 읽고 씁니다. (draining으로 한 번에 한 스레드만 전송)
+        private long lastSentChangeId;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+        // 진행 중인 send의 시작 시각(nanoTime), 보내는 중이 아니면 0
+        private volatile long sendStartedAt;
+        // send-timeout으로 끊겨 전송 스레드를 하나 더 띄운 상태
+        private final AtomicBoolean stalled = new AtomicBoolean();
+
+        private Subscriber(Set<String> categories, long after, SseEmitter emitter) {
+            this.categories = categories;
+            this.lastSentChangeId = after;
+            this.emitter = emitter;
+        }
+
+        private void offer(ProductChangeResponse change) {
+            if (closed) {
+                return;
+            }
+            boolean slowConsumer = false;
+            synchronized (this) {
+                if (overflowed) {
+                    dropped.increment();
+                    return;
+                }
+                if (buffer.size() >= bufferSize) {
+                    dropped.increment(buffer.size() + 1);
+                    buffer.clear();
+                    overflowed = true;
+                    slowConsumer = ++overflows > maxOverflows;
+                } else {
+                    buffer.add(change);
+                }
+            }
+            if (slowConsumer) {
+                log.info("product subscription disconnected as slow consumer :: categories={}, overflows={}", categories, overflows);
+                slowConsumerDisconnects.increment();
+                remove(this);
+                emitter.complete();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void requestHeartbeat() {
+            synchronized (this) {
+                heartbeatDue = true;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (closed || !draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // 종료 중
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                sendPending();
+            } catch (IOException | IllegalStateException e) {
+                // 클라이언트가 끊겼거나 이미 완료된 연결
+                if (!closed) {
+                    sendFailedDisconnects.increment();
+                    remove(this);
+                }
+            } finally {
+                sendStartedAt = 0L;
+                if (stalled.compareAndSet(true, false)) {
+                    resizeSender(stalledSenders.decrementAndGet());
+                }
+                draining.set(false);
+            }
+            // 전송을 마친 직후에 들어온 변경이 남아 있으면 다시 예약합니다.
+            if (!closed && hasPending()) {
+                scheduleDrain();
+            }
+        }
+
+        private void sendPending() throws IOException {
+            while (!closed) {
+                ProductChangeResponse change;
+                boolean resync = false;
+                boolean heartbeat = false;
+                synchronized (this) {
+                    change = buffer.poll();
+                    if (change == null && overflowed) {
+                        overflowed = false;
+                        resync = true;
+                    } else if (change == null && heartbeatDue) {
+                        heartbeatDue = false;
+                        heartbeat = true;
+                    }
+                }
+
+                if (change != null) {
+                    send(SseEmitter.event()
+                            .id(String.valueOf(change.changeId()))
+                            .name("change")
+                            .data(change));
+                    lastSentChangeId = change.changeId();
+                    sent.increment();
+                } else if (resync) {
+                    send(SseEmitter.event()
+                            .name("resync")
+                            .data(new ProductSubscriptionResponse(categories, lastSentChangeId)));
+                } else if (heartbeat) {
+                    send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    return;
+                }
+            }
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            sendStartedAt = System.nanoTime();
+            emitter.send(event);
+            sendStartedAt = 0L;
+        }
+
+        private synchronized boolean hasPending() {
+            return !buffer.isEmpty() || overflowed || heartbeatDue;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.wjc.codetest.product.feed;
+
+import com.wjc.codetest.product.model.domain.ProductChange;
+import com.wjc.codetest.product.model.event.ProductChangedEvent;
+import com.wjc.codetest.product.repository.ProductChangeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/*
+    상품 변경 outbox
+
+        - 상품 쓰기 트랜잭션이 발행한 ProductChangedEvent를 커밋 직전(BEFORE_COMMIT)에 product_changes 행으로 저장합니다.
+          같은 트랜잭션이므로 상품 변경과 outbox 행은 함께 커밋되거나 함께 롤백됩니다.
+        - change_id는 시퀀스에서 받으므로 커밋 순서와 다를 수 있습니다. (id 10이 id 9보다 먼저 커밋될 수 있음)
+          그대로 "마지막으로 읽은 id 이후"를 읽으면 늦게 커밋된 9를 건너뛰게 되므로,
+          아직 커밋되지 않은 id를 추적해서 그 중 가장 작은 id 직전까지만 읽기 안전한 범위로 알려줍니다. (committedUpTo)
+        - id 할당과 추적 등록 사이에 경계를 계산하지 않도록, 할당~등록은 읽기 락, 경계 계산은 쓰기 락으로 묶습니다.
+        - 추적은 이 프로세스의 쓰기만 대상으로 합니다. (인스턴스를 여러 대 띄우면 각자의 경계가 다른 인스턴스의 쓰기를 모름)
+        - 일괄 쓰기는 한 트랜잭션에서 변경 이벤트를 수만 건 발행하므로, chunkSize 건을 저장할 때마다 flush + clear 해서
+          outbox 행이 영속성 컨텍스트에 쌓이지 않게 합니다. (ProductBulkService의 청크 단위 flush/clear와 같은 크기)
+          커밋 직전이라 상품 쓰기도 모두 flush가 끝난 뒤에 clear 되므로 반영되지 않는 변경은 없습니다.
+        - 보관 기간(retention)이 지난 행은 주기적으로 삭제합니다.
+ */
+@Slf4j
+@Component
+public class ProductChangeOutbox {
+
+    private final ProductChangeRepository productChangeRepository;
+    private final EntityManager entityManager;
+    private final Duration retention;
+    private final int chunkSize;
+
+    private final ReadWriteLock allocationLock = new ReentrantReadWriteLock();
+    private final ConcurrentSkipListSet<Long> uncommittedIds = new ConcurrentSkipListSet<>();
+    private final AtomicLong maxAllocatedId = new AtomicLong();
+    private final List<Consumer<List<CommittedProductChange>>> commitListeners = new CopyOnWriteArrayList<>();
+
+    public ProductChangeOutbox(ProductChangeRepository productChangeRepository,
+                               EntityManager entityManager,
+                               @Value("${product.change-feed.retention:7d}") Duration retention,
+                               @Value("${product.bulk.chunk-size:1000}") int chunkSize) {
+        this.productChangeRepository = productChangeRepository;
+        this.entityManager = entityManager;
+        this.retention = retention;
+        this.chunkSize = chunkSize;
+    }
+
+    @PostConstruct
+    void init() {
+        maxAllocatedId.set(productChangeRepository.findMaxId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void append(ProductChangedEvent event) {
+        Lock lock = allocationLock.readLock();
+        lock.lock();
+        try {
+            // persist 시점에 id가 할당되고, insert는 커밋 시 flush에서 다른 insert와 함께 배치로 나갑니다.
+            ProductChange change = productChangeRepository.save(ProductChange.of(event, Instant.now()));
+            if (track(new CommittedProductChange(change, event)) % chunkSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 이 id까지는 커밋이 끝났거나 롤백되어 더 이상 새 행이 나타나지 않습니다.
+    public long committedUpTo() {
+        Lock lock = allocationLock.writeLock();
+        lock.lock();
+        try {
+            Long lowestUncommitted = uncommittedIds.ceiling(Long.MIN_VALUE);
+            return lowestUncommitted == null ? maxAllocatedId.get() : lowestUncommitted - 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 트랜잭션이 커밋될 때마다 (커밋한 스레드에서) 그 트랜잭션의 변경 목록으로 호출됩니다. 오래 걸리는 작업은 다른 스레드로 넘겨야 합니다.
+    public void addCommitListener(Consumer<List<CommittedProductChange>> listener) {
+        commitListeners.add(listener);
+    }
+
+    @Scheduled(fixedDelayString = "${product.change-feed.cleanup-interval:1h}",
+            initialDelayString = "${product.change-feed.cleanup-interval:1h}")
+    public void deleteExpired() {
+        int deleted = productChangeRepository.deleteChangedBefore(Instant.now().minus(retention));
+        if (deleted > 0) {
+            log.info("product change feed cleaned up :: deleted={}, retention={}", deleted, retention);
+        }
+    }
+
+    // 이 트랜잭션에서 지금까지 추적한 변경 수를 돌려줍니다.
+    private int track(CommittedProductChange committed) {
+        Long changeId = committed.change().getId();
+        uncommittedIds.add(changeId);
+        maxAllocatedId.accumulateAndGet(changeId, Math::max);
+
+        // 트랜잭션마다 변경 목록 하나와 완료 콜백 하나만 등록합니다. (일괄 쓰기에서 콜백이 행 수만큼 늘지 않도록)
+        TrackedChanges trackedChanges = (TrackedChanges) TransactionSynchronizationManager.getResource(this);
+        if (trackedChanges == null) {
+            trackedChanges = new TrackedChanges();
+            TransactionSynchronizationManager.bindResource(this, trackedChanges);
+            TransactionSynchronizationManager.registerSynchronization(new Completion(trackedChanges));
+        }
+        trackedChanges.changes.add(committed);
+        return trackedChanges.changes.size();
+    }
+
+    private static final class TrackedChanges {
+        private final List<CommittedProductChange> changes = new ArrayList<>();
+    }
+
+    private final class Completion implements TransactionSynchronization {
+
+        private final TrackedChanges trackedChanges;
+
+        private Completion(TrackedChanges trackedChanges) {
+            this.trackedChanges = trackedChanges;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ProductChangeOutbox.this);
+            trackedChanges.changes.forEach(committed -> uncommittedIds.remove(committed.change().getId()));
+            if (status == STATUS_COMMITTED) {
+                List<CommittedProductChange> changes = List.copyOf(trackedChanges.changes);
+                commitListeners.forEach(listener -> listener.accept(changes));
+            }
+        }
+    }
+}
@@ -1,10 +1,18 @@
 package com.wjc.codetest.product.model.domain;
 
+import com.wjc.codetest.product.category.CategoryIdConverter;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
 @Entity
+@Table(
+        name = "products",
+        // category 필터 + product_id 정렬(OFFSET/SLICE/CURSOR 조회)과 카테고리 목록 GROUP BY를 함께 받쳐주는 복합 인덱스
+        // 실제 DDL은 db/migration 스크립트가 관리하고, 여기 선언은 엔티티에서 인덱스 존재를 드러내기 위한 용도입니다.
+        indexes = @Index(name = "idx_products_category_id", columnList = "category_id, product_id")
+)
 @Getter
 @Setter
 /*
@@ -38,7 +46,10 @@ public class Product {
 
     @Id
     @Column(name = "product_id")
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    // 스키마를 마이그레이션으로 관리하므로 AUTO의 암묵적인 시퀀스 이름 대신 시퀀스를 명시합니다.
+    // allocationSize는 V1 스크립트의 INCREMENT BY 값과 반드시 일치해야 합니다.
+    @SequenceGenerator(name = "product_seq_generator", sequenceName = "products_seq", allocationSize = 50)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq_generator")
     /*
         [문제 및 의견] GenerationType.AUTO 설정에 관하여
 
@@ -72,12 +83,21 @@ public class Product {
               b) @Column(name = "product_category", nullable = false, length = 10)
             다만 위의 pk와 마찬가지로, 쿼리 작성 시 table.column 형태로 작성하기 때문에 a)가 낫다고 생각합니다.
      */
-    @Column(name = "category")
+    // 카테고리 이름은 categories 사전에 두고 products에는 정수 키만 저장합니다. (V4 스크립트, CategoryDictionary)
+    // 코드에서는 지금처럼 이름으로 다루고, 변환은 CategoryIdConverter가 합니다.
+    @Convert(converter = CategoryIdConverter.class)
+    @Column(name = "category_id")
     private String category;
 
     @Column(name = "name")
     private String name;
 
+    // 낙관적 락 버전: 수정될 때마다 1씩 증가하고, api에서는 ETag로 내려줍니다. (직접 변경 금지)
+    @Version
+    @Column(name = "version", nullable = false)
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
     /*
         [개인적인 의견] 기본 생성자 선언 스타일
 
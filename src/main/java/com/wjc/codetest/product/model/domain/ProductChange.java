@@ -0,0 +1,59 @@
+package com.wjc.codetest.product.model.domain;
+
+import com.wjc.codetest.product.model.event.ProductChangedEvent;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/*
+    상품 변경 outbox 행
+
+        - ProductChangedEvent 하나당 한 행이며, 상품 쓰기와 같은 트랜잭션에서 저장됩니다.
+        - 추가만 하고 수정하지 않습니다. (보관 기간이 지나면 삭제)
+        - id는 pooled 시퀀스에서 받아오므로 커밋 순서와 같지 않을 수 있습니다. 읽는 쪽의 처리는 ProductChangeOutbox 참고
+ */
+@Entity
+@Table(name = "product_changes")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ProductChange {
+
+    @Id
+    @Column(name = "change_id")
+    @SequenceGenerator(name = "product_change_seq_generator", sequenceName = "product_changes_seq", allocationSize = 50)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_change_seq_generator")
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 16)
+    private ProductChangedEvent.ChangeType changeType;
+
+    @Column(name = "category")
+    private String category;
+
+    @Column(name = "name")
+    private String name;
+
+    @Column(name = "version")
+    private Long version;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    public static ProductChange of(ProductChangedEvent event, Instant changedAt) {
+        ProductChange change = new ProductChange();
+        change.productId = event.productId();
+        change.changeType = event.type();
+        change.category = event.category();
+        change.name = event.name();
+        change.version = event.version();
+        change.changedAt = changedAt;
+        return change;
+    }
+}
@@ -0,0 +1,44 @@
+package com.wjc.codetest.product.model.event;
+
+import com.wjc.codetest.product.model.domain.Product;
+
+/*
+    Product 변경 이벤트
+
+        - ProductService의 쓰기 메소드가 트랜잭션 안에서 발행합니다.
+        - 캐시/카운터처럼 DB에서 파생된 인메모리 구조는 @TransactionalEventListener(AFTER_COMMIT)로 구독해서
+          롤백된 변경이 반영되지 않도록 합니다.
+        - previousCategory: 변경 전 카테고리 (생성 시 null)
+          category        : 변경 후 카테고리 (삭제 시 null)
+        - 단건 수정/삭제도 같은 트랜잭션에서 변경 전 행을 먼저 읽고 쓰므로 previousCategory는 항상 정확합니다.
+          (수정/삭제에서 previousCategory가 null이면 원래 카테고리가 없던 상품입니다)
+        - version: 변경 후 버전 (삭제 시 null). 구독자가 순서가 뒤바뀐 이벤트를 걸러낼 때 사용합니다.
+ */
+public record ProductChangedEvent(ChangeType type, Long productId, String previousCategory, String category, String name, Long version) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static ProductChangedEvent created(Product product) {
+        return new ProductChangedEvent(ChangeType.CREATED, product.getId(), null, product.getCategory(), product.getName(), product.getVersion());
+    }
+
+    public static ProductChangedEvent updated(String previousCategory, Product product) {
+        return new ProductChangedEvent(ChangeType.UPDATED, product.getId(), previousCategory, product.getCategory(), product.getName(), product.getVersion());
+    }
+
+    public static ProductChangedEvent updated(Long productId, String previousCategory, String category, String name, Long version) {
+        return new ProductChangedEvent(ChangeType.UPDATED, productId, previousCategory, category, name, version);
+    }
+
+    public static ProductChangedEvent deleted(Product product) {
+        return new ProductChangedEvent(ChangeType.DELETED, product.getId(), product.getCategory(), null, product.getName(), null);
+    }
+
+    public static ProductChangedEvent deleted(Long productId, String previousCategory) {
+        return new ProductChangedEvent(ChangeType.DELETED, productId, previousCategory, null, null, null);
+    }
+}
@@ -1,10 +1,13 @@
 package com.wjc.codetest.product.model.request;
 
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Getter
 @Setter
+// json 역직렬화(단건/일괄 요청 본문)에 기본 생성자가 필요합니다.
+@NoArgsConstructor
 public class CreateProductRequest {
     private String category;
     private String name;
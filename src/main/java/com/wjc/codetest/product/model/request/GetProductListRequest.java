@@ -9,6 +9,12 @@ public class GetProductListRequest {
     private String category;
     private int page;
     private int size;
+
+    // 미지정 시 기존과 동일하게 OFFSET 방식으로 동작합니다.
+    private PagingMode mode = PagingMode.OFFSET;
+
+    // CURSOR 모드에서 이전 응답의 nextCursor 값, 첫 페이지는 비워서 요청합니다.
+    private String cursor;
 }
 /*
     ps. CreateProductRequest.java 리뷰 코멘트에 dto 전반에 관한 설명을 포함했습니다.
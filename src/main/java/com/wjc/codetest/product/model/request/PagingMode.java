@@ -0,0 +1,14 @@
+package com.wjc.codetest.product.model.request;
+
+/*
+    목록 조회 페이징 방식
+
+        OFFSET : 기존 page/size 기반 조회 (깊은 페이지일수록 offset 만큼 스캔 비용 증가)
+        SLICE  : page/size 기반이지만 count 쿼리 없이 hasNext만 판단 (무한 스크롤용, 전체 건수는 근사치)
+        CURSOR : (category, product_id) 기준 keyset 조회, 페이지 깊이와 무관하게 일정한 비용
+ */
+public enum PagingMode {
+    OFFSET,
+    SLICE,
+    CURSOR
+}
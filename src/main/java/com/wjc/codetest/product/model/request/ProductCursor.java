@@ -0,0 +1,42 @@
+package com.wjc.codetest.product.model.request;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/*
+    keyset 페이징용 continuation token
+
+        - (category, 마지막으로 응답한 product_id)를 "id:category" 형태로 묶어 url-safe base64로 인코딩합니다.
+        - 클라이언트에는 불투명한 문자열로만 노출하고, 내부 포맷이 바뀌어도 api 계약은 유지되도록 합니다.
+        - 디코딩 실패나 포맷 불일치는 IllegalArgumentException으로 던져 400으로 응답합니다.
+ */
+public record ProductCursor(String category, long lastId) {
+
+    private static final char DELIMITER = ':';
+
+    public String encode() {
+        String raw = lastId + String.valueOf(DELIMITER) + category;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String token) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid cursor");
+        }
+
+        int delimiterIndex = raw.indexOf(DELIMITER);
+        if (delimiterIndex < 1) {
+            throw new IllegalArgumentException("invalid cursor");
+        }
+
+        try {
+            long lastId = Long.parseLong(raw.substring(0, delimiterIndex));
+            return new ProductCursor(raw.substring(delimiterIndex + 1), lastId);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid cursor");
+        }
+    }
+}
@@ -1,14 +1,19 @@
 package com.wjc.codetest.product.model.request;
 
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Getter
 @Setter
+// json 역직렬화(단건/일괄 요청 본문)에 기본 생성자가 필요합니다.
+@NoArgsConstructor
 public class UpdateProductRequest {
     private Long id;
     private String category;
     private String name;
+    // 낙관적 락: 값이 있으면 현재 버전과 같을 때만 수정합니다. (다르면 409)
+    private Long version;
 
     public UpdateProductRequest(Long id) {
         this.id = id;
@@ -0,0 +1,16 @@
+package com.wjc.codetest.product.model.response;
+
+import java.time.Instant;
+import java.util.List;
+
+/*
+    카테고리별 상품 수
+
+        - categories: 카테고리 이름순, 상품이 없는 카테고리는 포함하지 않습니다.
+        - 쓰기 이벤트로 증감하는 카운터 값이며, lastReconciledAt 시점에 GROUP BY 결과와 맞춰졌습니다.
+ */
+public record ProductCategoryStatsResponse(List<CategoryStat> categories, long totalProducts, Instant lastReconciledAt) {
+
+    public record CategoryStat(String category, long productCount) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.wjc.codetest.product.model.response;
+
+import java.util.List;
+
+/*
+    change feed 응답
+
+        - changes: 요청한 커서 이후의 변경, changeId 순
+        - nextCursor: 다음 요청의 after 값. 변경이 없어도 커밋이 끝난 범위만큼 앞으로 갈 수 있습니다. (롤백으로 비어 있는 id 건너뛰기)
+        - hasMore: true면 기다리지 말고 바로 다음 요청을 보내면 됩니다.
+ */
+public record ProductChangeFeedResponse(List<ProductChangeResponse> changes, long nextCursor, boolean hasMore) {
+
+    public static ProductChangeFeedResponse empty(long cursor) {
+        return new ProductChangeFeedResponse(List.of(), cursor, false);
+    }
+}
@@ -0,0 +1,21 @@
+package com.wjc.codetest.product.model.response;
+
+import com.wjc.codetest.product.model.domain.ProductChange;
+import com.wjc.codetest.product.model.event.ProductChangedEvent;
+
+import java.time.Instant;
+
+// change feed의 변경 한 건. 삭제(DELETED)는 category/name/version 없이 productId만 담깁니다.
+public record ProductChangeResponse(long changeId,
+                                    ProductChangedEvent.ChangeType type,
+                                    Long productId,
+                                    String category,
+                                    String name,
+                                    Long version,
+                                    Instant changedAt) {
+
+    public static ProductChangeResponse from(ProductChange change) {
+        return new ProductChangeResponse(change.getId(), change.getChangeType(), change.getProductId(),
+                change.getCategory(), change.getName(), change.getVersion(), change.getChangedAt());
+    }
+}
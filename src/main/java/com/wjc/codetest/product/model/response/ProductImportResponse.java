@@ -0,0 +1,20 @@
+package com.wjc.codetest.product.model.response;
+
+import java.util.List;
+
+/*
+    일괄 import 결과
+
+        - chunks: 커밋된 청크 수 (청크 단위로 커밋되므로 실패 시 이 수만큼은 이미 반영된 상태)
+        - rejectedRows: 검증/파싱에 실패한 전체 행 수
+        - rejections: 실패 행 상세, 응답 크기를 제한하기 위해 앞에서부터 일정 건수까지만 담습니다.
+ */
+public record ProductImportResponse(long totalRows,
+                                    long importedRows,
+                                    long rejectedRows,
+                                    int chunks,
+                                    List<Rejection> rejections) {
+
+    public record Rejection(long line, String reason) {
+    }
+}
@@ -1,6 +1,6 @@
 package com.wjc.codetest.product.model.response;
 
-import com.wjc.codetest.product.model.domain.Product;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -16,18 +16,41 @@ import java.util.List;
  */
 @Getter
 @Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class ProductListResponse {
-    private List<Product> products;
-    private int totalPages;
-    private long totalElements;
-    private int page;
+    private List<ProductResponse> products;
+    private Integer totalPages;
+    private Long totalElements;
+    private Integer page;
 
-    public ProductListResponse(List<Product> content, int totalPages, long totalElements, int number) {
+    // SLICE/CURSOR 모드 전용 필드, OFFSET 모드 응답에서는 생략됩니다.
+    private Boolean hasNext;
+    private String nextCursor;
+
+    public ProductListResponse(List<ProductResponse> content, int totalPages, long totalElements, int number) {
         this.products = content;
         this.totalPages = totalPages;
         this.totalElements = totalElements;
         this.page = number;
     }
+
+    private ProductListResponse(List<ProductResponse> content, Integer page, Long totalElements, boolean hasNext, String nextCursor) {
+        this.products = content;
+        this.page = page;
+        this.totalElements = totalElements;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    // slice 조회는 count 쿼리를 생략하므로 totalElements는 캐시된 근사치이고 totalPages는 내려주지 않습니다.
+    public static ProductListResponse ofSlice(List<ProductResponse> content, int page, boolean hasNext, long approximateTotalElements) {
+        return new ProductListResponse(content, page, approximateTotalElements, hasNext, null);
+    }
+
+    // keyset 조회는 전체 건수를 세지 않으므로 totalPages/totalElements/page 없이 다음 커서만 내려줍니다.
+    public static ProductListResponse ofCursor(List<ProductResponse> content, String nextCursor) {
+        return new ProductListResponse(content, null, null, nextCursor != null, nextCursor);
+    }
 }
 /*
     ps. CreateProductRequest.java 리뷰 코멘트에 dto 전반에 관한 설명을 포함했습니다.
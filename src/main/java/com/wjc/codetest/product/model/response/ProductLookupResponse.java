@@ -0,0 +1,18 @@
+package com.wjc.codetest.product.model.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/*
+    여러 id 일괄 조회 결과
+
+        - results: 요청한 id 순서 그대로 (중복 id도 요청한 만큼 포함)
+        - 없는 상품은 found=false 로 표시하고 product를 생략합니다.
+ */
+public record ProductLookupResponse(List<Result> results, int foundCount, int notFoundCount) {
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Result(Long id, boolean found, ProductResponse product) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.wjc.codetest.product.model.response;
+
+import com.wjc.codetest.product.model.domain.Product;
+import com.wjc.codetest.product.repository.ProductView;
+
+/*
+    단건 상품 응답
+
+        - 엔티티를 직접 직렬화하지 않도록 api 응답은 모두 이 record로 내려줍니다.
+        - 불변 객체이므로 캐시에 그대로 담아 여러 요청이 공유해도 안전합니다.
+        - version은 낙관적 락 버전입니다. 단건 조회/수정 응답에서는 같은 값이 ETag 헤더로도 내려갑니다.
+ */
+public record ProductResponse(Long id, String category, String name, Long version) {
+
+    public static ProductResponse from(Product product) {
+        return new ProductResponse(product.getId(), product.getCategory(), product.getName(), product.getVersion());
+    }
+
+    public static ProductResponse from(ProductView view) {
+        return new ProductResponse(view.getId(), view.getCategory(), view.getName(), view.getVersion());
+    }
+}
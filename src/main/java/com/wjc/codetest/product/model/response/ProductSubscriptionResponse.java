@@ -0,0 +1,12 @@
+package com.wjc.codetest.product.model.response;
+
+import java.util.Set;
+
+/*
+    SSE 구독의 subscribed / resync 이벤트 본문
+
+        - after: 이 구독이 놓쳤을 수 있는 변경은 GET /product/changes?after={after} 로 읽어서 categories로 걸러내면 됩니다.
+          (subscribed: 구독 시점의 커서, resync: 마지막으로 전달된 changeId)
+ */
+public record ProductSubscriptionResponse(Set<String> categories, long after) {
+}
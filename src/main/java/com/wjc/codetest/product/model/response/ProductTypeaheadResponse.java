@@ -0,0 +1,15 @@
+package com.wjc.codetest.product.model.response;
+
+import java.util.List;
+
+/*
+    자동완성 결과
+
+        - categories / names: 입력한 prefix로 시작하는 카테고리와 상품명, 해당 값을 가진 상품 수가 많은 순
+        - value는 처음 등록된 표기 그대로이고, prefix 비교는 대소문자를 구분하지 않습니다.
+ */
+public record ProductTypeaheadResponse(List<Completion> categories, List<Completion> names) {
+
+    public record Completion(String value, long count) {
+    }
+}
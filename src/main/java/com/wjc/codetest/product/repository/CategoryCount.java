@@ -0,0 +1,9 @@
+package com.wjc.codetest.product.repository;
+
+// 카테고리별 상품 수 집계 결과 projection (ProductRepository.countGroupByCategory)
+public interface CategoryCount {
+
+    String getCategory();
+
+    long getProductCount();
+}
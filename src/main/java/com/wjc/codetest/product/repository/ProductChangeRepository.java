@@ -0,0 +1,30 @@
+package com.wjc.codetest.product.repository;
+
+import com.wjc.codetest.product.model.domain.ProductChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ProductChangeRepository extends JpaRepository<ProductChange, Long> {
+
+    // change feed 조회: (afterId, upToId] 범위를 id 순으로 pageable 크기만큼 (pk 범위 스캔)
+    @Query("SELECT c FROM ProductChange c WHERE c.id > :afterId AND c.id <= :upToId ORDER BY c.id ASC")
+    List<ProductChange> findRange(@Param("afterId") long afterId, @Param("upToId") long upToId, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM ProductChange c")
+    long findMaxId();
+
+    // 보관 기간 정리: 스케줄러에서 트랜잭션 없이 호출되므로 메소드에 트랜잭션을 겁니다.
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ProductChange c WHERE c.changedAt < :cutoff")
+    int deleteChangedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -1,20 +1,90 @@
 package com.wjc.codetest.product.repository;
 
 import com.wjc.codetest.product.model.domain.Product;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
-    Page<Product> findAllByCategory(String name, Pageable pageable);
+    // 조회 메소드는 ProductView projection으로 필요한 컬럼만 읽습니다. (엔티티 hydration, dirty checking 스냅샷 없음)
+    Optional<ProductView> findProjectedById(Long id);
 
-    @Query("SELECT DISTINCT p.category FROM Product p")
-    List<String> findDistinctCategories();
+    // 일괄 조회: IN 절 하나로 읽습니다. 결과 순서는 보장되지 않으므로 호출하는 쪽에서 요청 순서로 맞춥니다.
+    List<ProductView> findProjectedByIdIn(Collection<Long> ids);
+
+    Page<ProductView> findAllByCategory(String category, Pageable pageable);
+
+    // Slice 반환이므로 count 쿼리 없이 size + 1 건만 조회해서 hasNext를 판단합니다.
+    Slice<ProductView> findSliceByCategory(String category, Pageable pageable);
+
+    // keyset 조회: offset 없이 마지막 id 이후부터 읽으므로 페이지 깊이와 무관하게 비용이 일정합니다.
+    // pageable은 limit 용도로만 사용합니다. (정렬은 인덱스 컬럼 순서와 같게 쿼리에 고정)
+    @Query("SELECT p.id AS id, p.category AS category, p.name AS name, p.version AS version FROM Product p " +
+            "WHERE p.category = :category AND p.id > :lastId ORDER BY p.category ASC, p.id ASC")
+    List<ProductView> findNextByCategory(@Param("category") String category, @Param("lastId") Long lastId, Pageable pageable);
+
+    // export 전용: 결과 전체를 List로 만들지 않고 커서로 읽습니다. 반드시 트랜잭션 안에서 소비하고 닫아야 합니다.
+    // fetch size 힌트로 드라이버가 한 번에 가져오는 행 수를 제한하고, projection이므로 영속성 컨텍스트에 쌓이지 않습니다.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p.id AS id, p.category AS category, p.name AS name, p.version AS version FROM Product p " +
+            "WHERE p.category = :category ORDER BY p.category ASC, p.id ASC")
+    Stream<ProductView> streamAllByCategory(@Param("category") String category);
+
+    // 검색 색인(ProductSearchIndex) 재구성 전용: 전체 상품을 커서로 읽습니다. 반드시 트랜잭션 안에서 소비하고 닫아야 합니다.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p.id AS id, p.category AS category, p.name AS name, p.version AS version FROM Product p")
+    Stream<ProductView> streamAll();
+
+    // 상품명 부분 일치 검색의 SQL 기준선 (LIKE '%x%', 인덱스를 쓸 수 없어 전체 스캔)
+    // api는 ProductSearchIndex를 사용하고, 이 메소드는 벤치마크 비교용으로만 남겨둡니다.
+    Page<ProductView> findByNameContainingIgnoreCase(String name, Pageable pageable);
+
+    // DISTINCT는 H2에서 해시 기반으로 처리되어 테이블 전체를 읽지만,
+    // GROUP BY는 idx_products_category_id의 선두 컬럼 순서대로 읽는 group sorted 실행이 가능합니다.
+    // 카테고리 목록과 카테고리별 상품 수(CategoryCache 참조 카운트)를 한 번에 적재하는 용도입니다.
+    @Query("SELECT p.category AS category, COUNT(p) AS productCount FROM Product p GROUP BY p.category")
+    List<CategoryCount> countGroupByCategory();
+
+    // 단건 수정/삭제 전에 변경 전 행(카테고리, 버전)을 읽습니다. 변경 이벤트에 변경 전 카테고리를 담기 위해서입니다.
+    // 조건 없는 수정/삭제는 마지막 요청이 반영되므로, 읽은 뒤 커밋 전까지 다른 요청이 같은 행을 바꾸지 못하도록 행 락을 잡습니다.
+    // (SELECT ... FOR UPDATE, 어차피 이어지는 UPDATE/DELETE가 잡을 락을 조금 먼저 잡는 것뿐입니다)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findForUpdateById(@Param("id") Long id);
+
+    // 단건 수정/삭제: 문장 하나로 처리하고 영향받은 행 수를 돌려줍니다. (0이면 없는 상품)
+    // 영속성 컨텍스트를 거치지 않으므로 실행 후 비워서, 같은 트랜잭션에서 먼저 읽은 인스턴스가 남지 않게 합니다.
+    // JPQL 벌크 update는 @Version을 자동으로 올리지 않으므로 직접 증가시킵니다.
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.category = :category, p.name = :name, p.version = p.version + 1 WHERE p.id = :id")
+    int updateById(@Param("id") Long id, @Param("category") String category, @Param("name") String name);
+
+    // 조건부 수정: 현재 버전이 기대한 버전일 때만 반영합니다. (0이면 없는 상품이거나 다른 요청이 먼저 수정함)
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.category = :category, p.name = :name, p.version = p.version + 1 " +
+            "WHERE p.id = :id AND p.version = :version")
+    int updateByIdAndVersion(@Param("id") Long id, @Param("version") Long version,
+                             @Param("category") String category, @Param("name") String name);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Product p WHERE p.id = :id")
+    int deleteProductById(@Param("id") Long id);
 }
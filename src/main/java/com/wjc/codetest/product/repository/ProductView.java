@@ -0,0 +1,13 @@
+package com.wjc.codetest.product.repository;
+
+// 조회 경로 전용 projection: 엔티티 대신 id, category, name, version 컬럼만 읽고 영속성 컨텍스트에 올리지 않습니다.
+public interface ProductView {
+
+    Long getId();
+
+    String getCategory();
+
+    String getName();
+
+    Long getVersion();
+}
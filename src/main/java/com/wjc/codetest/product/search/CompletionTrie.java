@@ -0,0 +1,104 @@
+package com.wjc.codetest.product.search;
+
+import com.wjc.codetest.product.model.response.ProductTypeaheadResponse.Completion;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+    prefix 자동완성용 trie
+
+        - 노드마다 하위 값 중 상위 maxCompletions개를 미리 계산해 둡니다. (상품 수 내림차순, 같으면 사전순)
+          조회는 prefix 길이만큼 노드를 따라 내려가서 그 목록을 잘라 주기만 하므로 전체 값 수와 무관합니다.
+        - 값의 상품 수가 바뀌면 해당 노드부터 루트까지 자식들의 목록을 병합해 다시 계산합니다.
+        - 쓰기는 한 번에 하나씩(synchronized), 조회는 락 없이 volatile로 교체된 불변 목록을 읽습니다.
+ */
+final class CompletionTrie {
+
+    private static final Comparator<Completion> RANKING = Comparator
+            .comparingLong(Completion::count).reversed()
+            .thenComparing(Completion::value);
+
+    private final int maxCompletions;
+    private final Node root = new Node();
+
+    CompletionTrie(int maxCompletions) {
+        this.maxCompletions = maxCompletions;
+    }
+
+    List<Completion> complete(String prefix, int limit) {
+        Node node = root;
+        String key = normalize(prefix);
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        List<Completion> top = node.top;
+        return top.size() <= limit ? top : top.subList(0, limit);
+    }
+
+    synchronized void adjust(String value, long delta) {
+        if (value == null || value.isBlank()) {
+            return;
+        }
+        String key = normalize(value);
+
+        List<Node> path = new ArrayList<>(key.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+            path.add(node);
+        }
+
+        node.count = Math.max(node.count + delta, 0L);
+        if (node.count == 0L) {
+            node.value = null;
+        } else if (node.value == null) {
+            node.value = value.strip();
+        }
+
+        for (int depth = path.size() - 1; depth >= 0; depth--) {
+            Node current = path.get(depth);
+            if (depth > 0 && current.count == 0L && current.children.isEmpty()) {
+                path.get(depth - 1).children.remove(key.charAt(depth - 1));
+                continue;
+            }
+            current.top = topOf(current);
+        }
+    }
+
+    synchronized void clear() {
+        root.children.clear();
+        root.top = List.of();
+    }
+
+    private List<Completion> topOf(Node node) {
+        List<Completion> candidates = new ArrayList<>();
+        if (node.count > 0L) {
+            candidates.add(new Completion(node.value, node.count));
+        }
+        for (Node child : node.children.values()) {
+            candidates.addAll(child.top);
+        }
+        candidates.sort(RANKING);
+        return List.copyOf(candidates.size() <= maxCompletions ? candidates : candidates.subList(0, maxCompletions));
+    }
+
+    private static String normalize(String value) {
+        return value.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new ConcurrentHashMap<>();
+        private String value;
+        private long count;
+        private volatile List<Completion> top = List.of();
+    }
+}
@@ -0,0 +1,321 @@
+package com.wjc.codetest.product.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wjc.codetest.product.model.event.ProductChangedEvent;
+import com.wjc.codetest.product.model.response.ProductResponse;
+import com.wjc.codetest.product.repository.ProductRepository;
+import com.wjc.codetest.product.repository.ProductView;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/*
+    상품명 검색용 인메모리 역색인
+
+        - 상품명을 소문자로 바꾸고 문자/숫자가 아닌 구분자로 단어를 나눈 뒤, 두 가지 posting을 만듭니다.
+            1) 단어 -> 상품 id (정렬 맵: 짧은 검색어의 단어 prefix 검색)
+            2) 단어 안의 trigram -> 상품 id (3글자 이상 검색어의 부분 문자열 검색, LIKE '%x%' 대체)
+        - 검색어도 같은 규칙으로 나누고, 모든 검색어를 만족하는 상품만 돌려줍니다. (AND)
+          trigram 교집합은 후보일 뿐이므로 실제 단어에 검색어가 포함되는지 다시 확인합니다.
+        - 기동 시 전체 상품을 커서로 읽어서 만들고, 이후에는 커밋된 변경 이벤트로 갱신합니다.
+          같은 상품의 이벤트는 documents.compute 안에서 처리해서 순서를 보장하고, 더 낮은 버전의 이벤트는 무시합니다.
+        - 삭제 이벤트에는 버전이 없으므로 삭제된 id를 tombstone으로 남기고, 그 id의 생성/수정 이벤트는 늦게 도착한 것으로 보고 무시합니다.
+          id는 시퀀스로 만들어서 재사용되지 않으므로 삭제 뒤에 오는 같은 id의 변경은 항상 삭제 이전 변경입니다.
+          tombstone은 늦은 이벤트가 도착할 수 있는 동안만 필요하므로 tombstone-ttl 뒤에 지웁니다.
+        - 조회는 락 없이 posting을 읽으므로 갱신 도중의 상품이 후보에서 빠지거나 더해질 수 있지만,
+          최종 결과는 항상 documents의 현재 값으로 다시 확인하므로 틀린 상품이 나가지는 않습니다.
+        - 상품 수에 비례해 힙을 사용합니다. (상품당 단어 수 + trigram 수 만큼의 posting)
+        - 문서를 교체할 때마다 이전/현재 값을 ProductTypeahead에 넘겨서 자동완성도 같은 순서로 갱신합니다.
+ */
+@Slf4j
+@Component
+public class ProductSearchIndex {
+
+    private static final int GRAM_SIZE = 3;
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // 랭킹 점수: 검색어가 단어와 일치 > 단어의 시작 > 단어의 중간, 상품명이 첫 검색어로 시작하면 가산점
+    private static final int EXACT_WORD_SCORE = 4;
+    private static final int WORD_PREFIX_SCORE = 2;
+    private static final int SUBSTRING_SCORE = 1;
+    private static final int LEADING_BONUS = 1;
+
+    private static final Comparator<ScoredProduct> RANKING = Comparator
+            .comparingInt(ScoredProduct::score).reversed()
+            .thenComparingInt(scored -> scored.product().name().length())
+            .thenComparing(scored -> scored.product().id());
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ProductTypeahead productTypeahead;
+
+    private final ConcurrentMap<Long, ProductResponse> documents = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Set<Long>> words = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String, Set<Long>> grams = new ConcurrentHashMap<>();
+    // 삭제된 상품 id. documents.compute 안에서만 읽고 쓰므로 같은 상품의 삭제/수정과 순서가 엇갈리지 않습니다.
+    private final Cache<Long, Boolean> tombstones;
+
+    public ProductSearchIndex(ProductRepository productRepository, PlatformTransactionManager transactionManager,
+                              ProductTypeahead productTypeahead,
+                              @Value("${product.search.tombstone-ttl:10m}") Duration tombstoneTtl,
+                              @Value("${product.search.tombstone-maximum-size:100000}") long tombstoneMaximumSize) {
+        this.productRepository = productRepository;
+        this.productTypeahead = productTypeahead;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.tombstones = Caffeine.newBuilder()
+                .maximumSize(tombstoneMaximumSize)
+                .expireAfterWrite(tombstoneTtl)
+                .build();
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        documents.clear();
+        words.clear();
+        grams.clear();
+        productTypeahead.clear();
+        // Stream은 트랜잭션 안에서만 소비할 수 있습니다.
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<ProductView> products = productRepository.streamAll()) {
+                products.forEach(view -> put(ProductResponse.from(view)));
+            }
+        });
+        log.info("product search index built :: products={}, words={}, grams={}", documents.size(), words.size(), grams.size());
+    }
+
+    public Page<ProductResponse> search(String query, Pageable pageable) {
+        List<String> terms = wordsOf(query);
+        if (terms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        List<ScoredProduct> matches = new ArrayList<>();
+        for (Long productId : candidates(terms)) {
+            ProductResponse product = documents.get(productId);
+            if (product == null || product.name() == null) {
+                continue;
+            }
+            int score = score(terms, product.name());
+            if (score > 0) {
+                matches.add(new ScoredProduct(product, score));
+            }
+        }
+        matches.sort(RANKING);
+
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        List<ProductResponse> content = matches.subList(from, to).stream()
+                .map(ScoredProduct::product)
+                .toList();
+        return new PageImpl<>(content, pageable, matches.size());
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.ChangeType.DELETED) {
+            // 문서가 아직 없어도(생성 이벤트보다 먼저 도착) tombstone은 남깁니다.
+            documents.compute(event.productId(), (id, current) -> {
+                tombstones.put(id, Boolean.TRUE);
+                if (current != null) {
+                    removePostings(current);
+                    productTypeahead.replace(current, null);
+                }
+                return null;
+            });
+            return;
+        }
+
+        ProductResponse changed = new ProductResponse(event.productId(), event.category(), event.name(), event.version());
+        documents.compute(event.productId(), (id, current) -> {
+            if (tombstones.getIfPresent(id) != null) {
+                return current;
+            }
+            if (current != null && isNewer(current, changed)) {
+                return current;
+            }
+            if (current != null) {
+                removePostings(current);
+            }
+            addPostings(changed);
+            productTypeahead.replace(current, changed);
+            return changed;
+        });
+    }
+
+    private void put(ProductResponse product) {
+        documents.compute(product.id(), (id, current) -> {
+            if (current != null) {
+                removePostings(current);
+            }
+            addPostings(product);
+            productTypeahead.replace(current, product);
+            return product;
+        });
+    }
+
+    // 가장 작은 posting부터 교집합을 만들어서 비교 횟수를 줄입니다.
+    private Set<Long> candidates(List<String> terms) {
+        List<Set<Long>> postings = new ArrayList<>();
+        for (String term : terms) {
+            Set<Long> posting = postingOf(term);
+            if (posting.isEmpty()) {
+                return Set.of();
+            }
+            postings.add(posting);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> result = new HashSet<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !result.isEmpty(); i++) {
+            result.retainAll(postings.get(i));
+        }
+        return result;
+    }
+
+    private Set<Long> postingOf(String term) {
+        if (term.length() < GRAM_SIZE) {
+            Set<Long> result = new HashSet<>();
+            words.subMap(term, true, term + Character.MAX_VALUE, false).values().forEach(result::addAll);
+            return result;
+        }
+
+        List<Set<Long>> gramPostings = new ArrayList<>();
+        for (String gram : gramsOf(term)) {
+            Set<Long> posting = grams.get(gram);
+            if (posting == null) {
+                return Set.of();
+            }
+            gramPostings.add(posting);
+        }
+        gramPostings.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(gramPostings.get(0));
+        for (int i = 1; i < gramPostings.size() && !result.isEmpty(); i++) {
+            result.retainAll(gramPostings.get(i));
+        }
+        return result;
+    }
+
+    // 모든 검색어가 상품명의 어떤 단어에 포함되어야 합니다. 하나라도 없으면 0
+    private static int score(List<String> terms, String name) {
+        List<String> nameWords = wordsOf(name);
+        int total = 0;
+        for (String term : terms) {
+            int best = 0;
+            for (String word : nameWords) {
+                best = Math.max(best, scoreOf(term, word));
+            }
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        if (!nameWords.isEmpty() && nameWords.get(0).startsWith(terms.get(0))) {
+            total += LEADING_BONUS;
+        }
+        return total;
+    }
+
+    private static int scoreOf(String term, String word) {
+        if (word.equals(term)) {
+            return EXACT_WORD_SCORE;
+        }
+        if (word.startsWith(term)) {
+            return WORD_PREFIX_SCORE;
+        }
+        // 짧은 검색어는 단어 prefix로만 찾으므로 부분 문자열 점수를 주지 않습니다.
+        if (term.length() >= GRAM_SIZE && word.contains(term)) {
+            return SUBSTRING_SCORE;
+        }
+        return 0;
+    }
+
+    private void addPostings(ProductResponse product) {
+        for (String word : wordsOf(product.name())) {
+            add(words, word, product.id());
+            for (String gram : gramsOf(word)) {
+                add(grams, gram, product.id());
+            }
+        }
+    }
+
+    private void removePostings(ProductResponse product) {
+        for (String word : wordsOf(product.name())) {
+            remove(words, word, product.id());
+            for (String gram : gramsOf(word)) {
+                remove(grams, gram, product.id());
+            }
+        }
+    }
+
+    // 빈 posting 제거와 추가가 경쟁하지 않도록 키 단위 compute 안에서 변경합니다.
+    private static void add(Map<String, Set<Long>> postings, String key, Long productId) {
+        postings.compute(key, (k, ids) -> {
+            Set<Long> result = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+            result.add(productId);
+            return result;
+        });
+    }
+
+    private static void remove(Map<String, Set<Long>> postings, String key, Long productId) {
+        postings.computeIfPresent(key, (k, ids) -> {
+            ids.remove(productId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static boolean isNewer(ProductResponse current, ProductResponse changed) {
+        return current.version() != null && changed.version() != null && current.version() > changed.version();
+    }
+
+    static List<String> wordsOf(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return Stream.of(WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(word -> !word.isEmpty())
+                .toList();
+    }
+
+    static Collection<String> gramsOf(String word) {
+        if (word.length() < GRAM_SIZE) {
+            return List.of();
+        }
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= word.length(); i++) {
+            result.add(word.substring(i, i + GRAM_SIZE));
+        }
+        return result;
+    }
+
+    private record ScoredProduct(ProductResponse product, int score) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.wjc.codetest.product.search;
+
+import com.wjc.codetest.product.model.response.ProductResponse;
+import com.wjc.codetest.product.model.response.ProductTypeaheadResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/*
+    카테고리/상품명 자동완성
+
+        - 카테고리와 상품명을 각각 CompletionTrie에 담고, 값마다 그 값을 가진 상품 수를 셉니다.
+        - 갱신은 ProductSearchIndex가 상품 문서를 교체할 때 이전/현재 값을 넘겨주는 방식입니다.
+          이전 값은 이벤트가 아니라 색인이 들고 있는 상품별 현재 문서에서 가져오므로,
+          이벤트 순서가 바뀌어 색인이 무시한 변경(낮은 버전, 삭제 뒤 수정)은 자동완성에도 반영되지 않습니다.
+ */
+@Component
+public class ProductTypeahead {
+
+    private final int maxCompletions;
+    private final CompletionTrie categories;
+    private final CompletionTrie names;
+
+    public ProductTypeahead(@Value("${product.typeahead.max-completions:10}") int maxCompletions) {
+        this.maxCompletions = maxCompletions;
+        this.categories = new CompletionTrie(maxCompletions);
+        this.names = new CompletionTrie(maxCompletions);
+    }
+
+    public ProductTypeaheadResponse complete(String prefix, int limit) {
+        return new ProductTypeaheadResponse(categories.complete(prefix, limit), names.complete(prefix, limit));
+    }
+
+    public int maxCompletions() {
+        return maxCompletions;
+    }
+
+    // previous, current 중 하나는 null일 수 있습니다. (생성/삭제)
+    void replace(ProductResponse previous, ProductResponse current) {
+        String previousCategory = previous == null ? null : previous.category();
+        String currentCategory = current == null ? null : current.category();
+        if (!Objects.equals(previousCategory, currentCategory)) {
+            categories.adjust(previousCategory, -1L);
+            categories.adjust(currentCategory, 1L);
+        }
+
+        String previousName = previous == null ? null : previous.name();
+        String currentName = current == null ? null : current.name();
+        if (!Objects.equals(previousName, currentName)) {
+            names.adjust(previousName, -1L);
+            names.adjust(currentName, 1L);
+        }
+    }
+
+    void clear() {
+        categories.clear();
+        names.clear();
+    }
+}
@@ -0,0 +1,183 @@
+package com.wjc.codetest.product.service;
+
+import com.wjc.codetest.product.category.CategoryDictionary;
+import com.wjc.codetest.product.exception.ProductNotFoundException;
+import com.wjc.codetest.product.exception.ProductVersionConflictException;
+import com.wjc.codetest.product.model.domain.Product;
+import com.wjc.codetest.product.model.event.ProductChangedEvent;
+import com.wjc.codetest.product.model.request.CreateProductRequest;
+import com.wjc.codetest.product.model.request.UpdateProductRequest;
+import com.wjc.codetest.product.model.response.ProductResponse;
+import com.wjc.codetest.product.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/*
+    일괄 생성/수정/삭제
+
+        - 단건 api를 수만 번 호출하던 카탈로그 적재를 한 요청, 한 트랜잭션으로 처리합니다.
+        - insert/update는 hibernate.jdbc.batch_size 단위로 JDBC 배치 전송되고,
+          id는 pooled 시퀀스(allocationSize 50)에서 받아오므로 50건당 시퀀스 호출은 한 번입니다.
+        - chunkSize 건마다 flush + clear 해서 영속성 컨텍스트(1차 캐시, 스냅샷)가 요청 크기만큼 커지지 않게 합니다.
+        - 요청한 id 중 하나라도 없으면 전체를 롤백합니다. (단건 api와 같은 실패 의미)
+        - 요청에 새 카테고리가 있으면 쓰기 트랜잭션을 열기 전에 카테고리 사전에 등록합니다. (이미 있는 카테고리는 메모리 확인만)
+          등록은 별도 트랜잭션이라 쓰기 트랜잭션 안에서 하면 요청마다 커넥션을 두 개 잡게 되므로,
+          생성/수정은 @Transactional 대신 등록 이후에 TransactionTemplate으로 트랜잭션을 엽니다. (삭제도 같은 방식)
+        - id가 없는 수정 요청이나 null id 삭제 요청은 트랜잭션을 열기 전에 400으로 거절합니다.
+ */
+@Service
+public class ProductBulkService {
+
+    private final ProductRepository productRepository;
+    private final CategoryDictionary categoryDictionary;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate writeTransaction;
+    private final int chunkSize;
+
+    public ProductBulkService(ProductRepository productRepository,
+                              CategoryDictionary categoryDictionary,
+                              EntityManager entityManager,
+                              ApplicationEventPublisher eventPublisher,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${product.bulk.chunk-size:1000}") int chunkSize) {
+        this.productRepository = productRepository;
+        this.categoryDictionary = categoryDictionary;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    public List<ProductResponse> createAll(List<CreateProductRequest> dtos) {
+        categoryDictionary.registerAll(dtos.stream().map(CreateProductRequest::getCategory).toList());
+        return writeTransaction.execute(status -> createInTransaction(dtos));
+    }
+
+    private List<ProductResponse> createInTransaction(List<CreateProductRequest> dtos) {
+        List<ProductResponse> createdProducts = new ArrayList<>(dtos.size());
+        for (List<CreateProductRequest> chunk : chunks(dtos)) {
+            List<Product> products = chunk.stream()
+                    .map(dto -> new Product(dto.getCategory(), dto.getName()))
+                    .toList();
+            List<Product> savedProducts = productRepository.saveAll(products);
+            flushAndClear();
+
+            savedProducts.forEach(product -> eventPublisher.publishEvent(ProductChangedEvent.created(product)));
+            savedProducts.forEach(product -> createdProducts.add(ProductResponse.from(product)));
+        }
+        return createdProducts;
+    }
+
+    public List<ProductResponse> updateAll(List<UpdateProductRequest> dtos) {
+        requireIds(dtos);
+        return update(dtos, true);
+    }
+
+    // write-behind flush용: 버퍼에 있는 동안 삭제된 상품은 건너뛰고, 반영한 상품만 돌려줍니다.
+    public List<ProductResponse> updateAllExisting(List<UpdateProductRequest> dtos) {
+        return update(dtos, false);
+    }
+
+    private List<ProductResponse> update(List<UpdateProductRequest> dtos, boolean requireAll) {
+        // 같은 id가 여러 번 오면 마지막 요청을 반영합니다.
+        Map<Long, UpdateProductRequest> requestsById = new LinkedHashMap<>();
+        dtos.forEach(dto -> requestsById.put(dto.getId(), dto));
+        categoryDictionary.registerAll(requestsById.values().stream().map(UpdateProductRequest::getCategory).toList());
+        return writeTransaction.execute(status -> updateInTransaction(requestsById, requireAll));
+    }
+
+    private List<ProductResponse> updateInTransaction(Map<Long, UpdateProductRequest> requestsById, boolean requireAll) {
+        List<ProductResponse> updatedProducts = new ArrayList<>(requestsById.size());
+        for (List<Long> chunkIds : chunks(new ArrayList<>(requestsById.keySet()))) {
+            List<Product> products = requireAll ? findAllOrThrow(chunkIds) : productRepository.findAllById(chunkIds);
+            Map<Long, String> previousCategories = new HashMap<>(products.size());
+            for (Product product : products) {
+                UpdateProductRequest dto = requestsById.get(product.getId());
+                if (dto.getVersion() != null && !dto.getVersion().equals(product.getVersion())) {
+                    throw new ProductVersionConflictException(product.getId(), dto.getVersion());
+                }
+                previousCategories.put(product.getId(), product.getCategory());
+                product.setCategory(dto.getCategory());
+                product.setName(dto.getName());
+            }
+            // dirty checking으로 만들어진 update가 flush 시점에 id 순으로 정렬되어 배치 전송됩니다.
+            // @Version 조건이 붙으므로 읽은 이후 다른 요청이 먼저 수정했다면 flush에서 실패하고 전체가 롤백됩니다. (409)
+            flushAndClear();
+
+            // 이벤트에 증가된 버전이 담기도록 flush 이후에 만듭니다.
+            products.forEach(product -> eventPublisher.publishEvent(
+                    ProductChangedEvent.updated(previousCategories.get(product.getId()), product)));
+            products.forEach(product -> updatedProducts.add(ProductResponse.from(product)));
+        }
+        return updatedProducts;
+    }
+
+    public int deleteAllById(List<Long> productIds) {
+        requireProductIds(productIds);
+        return writeTransaction.execute(status -> deleteInTransaction(productIds));
+    }
+
+    private int deleteInTransaction(List<Long> productIds) {
+        int deletedCount = 0;
+        for (List<Long> chunkIds : chunks(productIds.stream().distinct().toList())) {
+            // 이벤트(카테고리 참조 카운트 등)에 삭제 전 카테고리가 필요하므로 먼저 읽고, 삭제는 IN 절 한 번으로 처리합니다.
+            List<Product> products = findAllOrThrow(chunkIds);
+            productRepository.deleteAllByIdInBatch(chunkIds);
+            entityManager.clear();
+
+            products.forEach(product -> eventPublisher.publishEvent(ProductChangedEvent.deleted(product)));
+            deletedCount += products.size();
+        }
+        return deletedCount;
+    }
+
+    // ProductService도 write-behind 버퍼를 확인하기 전에 같은 검증을 씁니다.
+    static void requireIds(List<UpdateProductRequest> dtos) {
+        if (dtos.stream().anyMatch(dto -> dto == null || dto.getId() == null)) {
+            throw new IllegalArgumentException("every product update requires an id");
+        }
+    }
+
+    static void requireProductIds(List<Long> productIds) {
+        if (productIds.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("product ids must not contain null");
+        }
+    }
+
+    private List<Product> findAllOrThrow(List<Long> productIds) {
+        List<Product> products = productRepository.findAllById(productIds);
+        if (products.size() != productIds.size()) {
+            Set<Long> foundIds = products.stream().map(Product::getId).collect(Collectors.toSet());
+            Long missingId = productIds.stream().filter(id -> !foundIds.contains(id)).findFirst().orElse(null);
+            throw new ProductNotFoundException(missingId);
+        }
+        return products;
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private <T> List<List<T>> chunks(List<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            chunks.add(items.subList(from, Math.min(from + chunkSize, items.size())));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,170 @@
+package com.wjc.codetest.product.service;
+
+import com.wjc.codetest.product.feed.ProductChangeOutbox;
+import com.wjc.codetest.product.model.domain.ProductChange;
+import com.wjc.codetest.product.model.response.ProductChangeFeedResponse;
+import com.wjc.codetest.product.model.response.ProductChangeResponse;
+import com.wjc.codetest.product.repository.ProductChangeRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+    상품 change feed (long-poll)
+
+        - 하위 시스템은 카테고리마다 목록을 다시 읽는 대신, 마지막 커서 이후의 변경만 배치로 받아갑니다.
+        - 읽을 변경이 있으면 바로 응답하고, 없으면 최대 wait 동안 요청을 보류(DeferredResult)했다가
+          새 변경이 커밋되는 즉시 응답합니다. 보류 중에는 서블릿 스레드와 커넥션을 잡지 않습니다.
+        - 커밋 알림은 커밋한 스레드에서 오므로, 보류된 요청의 조회는 전용 스레드 하나에서 모아서 처리합니다.
+          같은 커서로 기다리는 요청은 묶어서 가장 큰 limit으로 한 번만 읽고, 요청마다 자기 limit만큼 잘라서 응답합니다.
+        - 읽기 범위는 ProductChangeOutbox.committedUpTo() 까지로 제한해서, 늦게 커밋되는 작은 id를 건너뛰지 않습니다.
+ */
+@Slf4j
+@Service
+public class ProductChangeFeedService {
+
+    private static final int MAX_LIMIT = 1000;
+    private static final Duration MAX_WAIT = Duration.ofSeconds(60);
+
+    private final ProductChangeRepository productChangeRepository;
+    private final ProductChangeOutbox productChangeOutbox;
+
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean dispatchScheduled = new AtomicBoolean();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ProductChangeFeedService(ProductChangeRepository productChangeRepository, ProductChangeOutbox productChangeOutbox) {
+        this.productChangeRepository = productChangeRepository;
+        this.productChangeOutbox = productChangeOutbox;
+        productChangeOutbox.addCommitListener(changes -> scheduleDispatch());
+    }
+
+    public DeferredResult<ProductChangeFeedResponse> poll(long after, int limit, Duration wait) {
+        if (after < 0) {
+            throw new IllegalArgumentException("after must not be negative");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (wait.isNegative() || wait.compareTo(MAX_WAIT) > 0) {
+            throw new IllegalArgumentException("wait must be between 0 and " + MAX_WAIT.toSeconds() + " seconds");
+        }
+
+        ProductChangeFeedResponse response = read(after, limit);
+        DeferredResult<ProductChangeFeedResponse> result =
+                new DeferredResult<>(wait.toMillis(), ProductChangeFeedResponse.empty(response.nextCursor()));
+        if (!response.changes().isEmpty() || wait.isZero()) {
+            result.setResult(response);
+            return result;
+        }
+
+        Waiter waiter = new Waiter(response.nextCursor(), limit, result);
+        waiters.add(waiter);
+        result.onCompletion(() -> waiters.remove(waiter));
+        // 조회와 등록 사이에 커밋된 변경을 놓치지 않도록 한 번 더 확인합니다.
+        if (productChangeOutbox.committedUpTo() > waiter.after()) {
+            scheduleDispatch();
+        }
+        return result;
+    }
+
+    public ProductChangeFeedResponse read(long after, int limit) {
+        long upTo = productChangeOutbox.committedUpTo();
+        if (upTo <= after) {
+            return ProductChangeFeedResponse.empty(after);
+        }
+
+        // 한 건을 더 읽어서 바로 이어서 읽을 것이 있는지 판단합니다.
+        List<ProductChange> rows = productChangeRepository.findRange(after, upTo, PageRequest.ofSize(limit + 1));
+        if (rows.isEmpty()) {
+            // 커밋이 끝난 범위에 행이 없으면(롤백, 정리된 행) 그 범위를 건너뜁니다.
+            return ProductChangeFeedResponse.empty(upTo);
+        }
+        boolean hasMore = rows.size() > limit;
+        List<ProductChangeResponse> changes = rows.stream()
+                .limit(limit)
+                .map(ProductChangeResponse::from)
+                .toList();
+        long nextCursor = hasMore ? changes.get(changes.size() - 1).changeId() : upTo;
+        return new ProductChangeFeedResponse(changes, nextCursor, hasMore);
+    }
+
+    private void scheduleDispatch() {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        if (dispatchScheduled.compareAndSet(false, true)) {
+            dispatcher.execute(this::dispatch);
+        }
+    }
+
+    private void dispatch() {
+        // 처리 도중 들어온 커밋 알림이 다음 dispatch를 예약할 수 있도록 먼저 해제합니다.
+        dispatchScheduled.set(false);
+        long upTo = productChangeOutbox.committedUpTo();
+        Map<Long, List<Waiter>> waitersByCursor = new LinkedHashMap<>();
+        for (Waiter waiter : waiters) {
+            if (waiter.result().isSetOrExpired()) {
+                waiters.remove(waiter);
+                continue;
+            }
+            if (waiter.after() < upTo) {
+                waitersByCursor.computeIfAbsent(waiter.after(), cursor -> new ArrayList<>()).add(waiter);
+            }
+        }
+
+        waitersByCursor.forEach((after, group) -> {
+            int limit = group.stream().mapToInt(Waiter::limit).max().orElseThrow();
+            try {
+                ProductChangeFeedResponse response = read(after, limit);
+                if (response.changes().isEmpty()) {
+                    return;
+                }
+                for (Waiter waiter : group) {
+                    waiter.result().setResult(limitTo(response, waiter.limit()));
+                    waiters.remove(waiter);
+                }
+            } catch (RuntimeException e) {
+                log.warn("product change feed dispatch failed :: after={}, waiters={}, cause={}", after, group.size(), e.getMessage());
+                for (Waiter waiter : group) {
+                    waiter.result().setErrorResult(e);
+                    waiters.remove(waiter);
+                }
+            }
+        });
+    }
+
+    // 더 큰 limit으로 읽은 응답을 limit 건으로 자릅니다. 잘린 경우 다음 커서는 마지막으로 돌려준 변경입니다.
+    private static ProductChangeFeedResponse limitTo(ProductChangeFeedResponse response, int limit) {
+        if (response.changes().size() <= limit) {
+            return response;
+        }
+        List<ProductChangeResponse> changes = response.changes().subList(0, limit);
+        return new ProductChangeFeedResponse(List.copyOf(changes), changes.get(limit - 1).changeId(), true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+    }
+
+    private record Waiter(long after, int limit, DeferredResult<ProductChangeFeedResponse> result) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.wjc.codetest.product.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wjc.codetest.product.model.response.ProductResponse;
+import com.wjc.codetest.product.repository.ProductRepository;
+import com.wjc.codetest.product.repository.ProductView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/*
+    카테고리 전체 NDJSON export
+
+        - 페이지 단위로 List<Product>를 만들지 않고 커서(Stream)로 한 행씩 읽어서 바로 응답 스트림에 씁니다.
+        - 엔티티가 아닌 projection으로 읽으므로 영속성 컨텍스트가 카테고리 크기만큼 커지지 않습니다.
+        - Stream은 트랜잭션 안에서만 소비할 수 있으므로 조회부터 쓰기까지 이 메소드 하나의 트랜잭션으로 묶습니다.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductExportService {
+
+    // 이 건수마다 응답 버퍼를 비워서 클라이언트가 전체 완료 전에도 데이터를 받을 수 있게 합니다.
+    private static final int FLUSH_INTERVAL = 500;
+    private static final byte LINE_SEPARATOR = '\n';
+
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public long exportByCategory(String category, OutputStream out) throws IOException {
+        long written = 0L;
+        try (Stream<ProductView> products = productRepository.streamAllByCategory(category)) {
+            Iterator<ProductView> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(ProductResponse.from(iterator.next())));
+                out.write(LINE_SEPARATOR);
+
+                if (++written % FLUSH_INTERVAL == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+        return written;
+    }
+}
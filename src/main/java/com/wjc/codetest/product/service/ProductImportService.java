@@ -0,0 +1,174 @@
+package com.wjc.codetest.product.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wjc.codetest.product.model.request.CreateProductRequest;
+import com.wjc.codetest.product.model.response.ProductImportResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    공급사 피드(NDJSON/CSV) 스트리밍 import
+
+        - 요청 본문을 한 줄씩 읽어 검증하고, 유효한 행을 chunkSize 만큼 모아서 청크마다 별도 트랜잭션으로 저장합니다.
+        - 다음 청크는 이전 청크가 커밋된 뒤에야 읽으므로, 쓰기가 느리면 소켓 읽기가 멈추고
+          TCP 흐름 제어로 업로드 속도가 자연스럽게 조절됩니다. (backpressure)
+        - 메모리에는 현재 청크와 일부 실패 행 정보만 남기 때문에 피드 크기와 관계없이 힙 사용량이 일정합니다.
+        - 청크 단위 커밋이므로 도중에 실패하면 이미 커밋된 청크는 남습니다. 진행 상황은 청크마다 로그로 남깁니다.
+ */
+@Slf4j
+@Service
+public class ProductImportService {
+
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    private static final int MAX_COLUMN_LENGTH = 255;
+    private static final String CSV_HEADER = "category,name";
+
+    private final ProductBulkService productBulkService;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int maxReportedRejections;
+
+    public ProductImportService(ProductBulkService productBulkService,
+                                ObjectMapper objectMapper,
+                                @Value("${product.import.chunk-size:1000}") int chunkSize,
+                                @Value("${product.import.max-reported-rejections:1000}") int maxReportedRejections) {
+        this.productBulkService = productBulkService;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.maxReportedRejections = maxReportedRejections;
+    }
+
+    public ProductImportResponse importProducts(InputStream in, Format format) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        List<CreateProductRequest> chunk = new ArrayList<>(chunkSize);
+        List<ProductImportResponse.Rejection> rejections = new ArrayList<>();
+        long lineNumber = 0L;
+        long totalRows = 0L;
+        long importedRows = 0L;
+        long rejectedRows = 0L;
+        int chunks = 0;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || (format == Format.CSV && lineNumber == 1 && line.trim().equalsIgnoreCase(CSV_HEADER))) {
+                continue;
+            }
+            totalRows++;
+
+            try {
+                chunk.add(validate(parse(line, format)));
+            } catch (IllegalArgumentException e) {
+                rejectedRows++;
+                if (rejections.size() < maxReportedRejections) {
+                    rejections.add(new ProductImportResponse.Rejection(lineNumber, e.getMessage()));
+                }
+                continue;
+            }
+
+            if (chunk.size() == chunkSize) {
+                importedRows += flush(chunk, ++chunks, lineNumber);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importedRows += flush(chunk, ++chunks, lineNumber);
+        }
+
+        log.info("product import finished :: format={}, totalRows={}, importedRows={}, rejectedRows={}, chunks={}",
+                format, totalRows, importedRows, rejectedRows, chunks);
+        return new ProductImportResponse(totalRows, importedRows, rejectedRows, chunks, rejections);
+    }
+
+    private int flush(List<CreateProductRequest> chunk, int chunkNumber, long lineNumber) {
+        int saved = productBulkService.createAll(chunk).size();
+        log.info("product import chunk committed :: chunk={}, rows={}, lastLine={}", chunkNumber, saved, lineNumber);
+        chunk.clear();
+        return saved;
+    }
+
+    private CreateProductRequest parse(String line, Format format) {
+        if (format == Format.NDJSON) {
+            CreateProductRequest dto;
+            try {
+                dto = objectMapper.readValue(line, CreateProductRequest.class);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("malformed json");
+            }
+            // JSON 리터럴 null 한 줄은 예외 없이 null로 읽히므로 거부 행으로 처리합니다.
+            if (dto == null) {
+                throw new IllegalArgumentException("empty row");
+            }
+            return dto;
+        }
+
+        List<String> columns = parseCsvLine(line);
+        if (columns.size() != 2) {
+            throw new IllegalArgumentException("expected 2 columns (category,name) but was " + columns.size());
+        }
+        return new CreateProductRequest(columns.get(0), columns.get(1));
+    }
+
+    private CreateProductRequest validate(CreateProductRequest dto) {
+        validateColumn("category", dto.getCategory());
+        validateColumn("name", dto.getName());
+        return dto;
+    }
+
+    private void validateColumn(String column, String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(column + " is required");
+        }
+        if (value.length() > MAX_COLUMN_LENGTH) {
+            throw new IllegalArgumentException(column + " exceeds " + MAX_COLUMN_LENGTH + " characters");
+        }
+    }
+
+    // RFC 4180 형태의 한 줄 파싱 (따옴표 필드, "" 이스케이프 지원 / 필드 내부 줄바꿈은 지원하지 않음)
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
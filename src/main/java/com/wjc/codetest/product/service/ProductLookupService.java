@@ -0,0 +1,83 @@
+package com.wjc.codetest.product.service;
+
+import com.wjc.codetest.product.cache.ProductCache;
+import com.wjc.codetest.product.model.response.ProductLookupResponse;
+import com.wjc.codetest.product.model.response.ProductResponse;
+import com.wjc.codetest.product.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/*
+    여러 id 일괄 조회
+
+        - 장바구니/목록 화면이 상품마다 단건 조회를 반복하던 것을 한 요청으로 처리합니다.
+        - 먼저 ProductCache에 있는 상품을 꺼내고, 나머지만 IN 절 쿼리로 읽습니다. (chunkSize 개씩 나눠서)
+        - DB에서 읽은 상품은 캐시에 넣지 않습니다. 일괄 적재는 단건 로딩과 달리 무효화와 원자적이지 않아서
+          커밋 직전 값을 읽은 요청이 무효화 이후에 오래된 값을 넣을 수 있기 때문입니다.
+        - 캐시 hit만으로 끝나면 커넥션을 잡지 않도록 트랜잭션을 걸지 않습니다. (청크 쿼리마다 repository의 readOnly 트랜잭션)
+ */
+@Service
+public class ProductLookupService {
+
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final int maxIds;
+    private final int chunkSize;
+
+    public ProductLookupService(ProductRepository productRepository,
+                                ProductCache productCache,
+                                @Value("${product.lookup.max-ids:1000}") int maxIds,
+                                @Value("${product.lookup.chunk-size:500}") int chunkSize) {
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.maxIds = maxIds;
+        this.chunkSize = chunkSize;
+    }
+
+    public ProductLookupResponse getAllById(List<Long> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            throw new IllegalArgumentException("ids must not be empty");
+        }
+        if (productIds.size() > maxIds) {
+            throw new IllegalArgumentException("at most " + maxIds + " ids can be requested at once");
+        }
+        if (productIds.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("ids must not contain null");
+        }
+
+        Map<Long, ProductResponse> products = new HashMap<>(productCache.getAllPresent(productIds));
+        List<Long> missingIds = productIds.stream()
+                .filter(id -> !products.containsKey(id))
+                .distinct()
+                .toList();
+        for (List<Long> chunk : chunks(missingIds)) {
+            productRepository.findProjectedByIdIn(chunk)
+                    .forEach(view -> products.put(view.getId(), ProductResponse.from(view)));
+        }
+
+        List<ProductLookupResponse.Result> results = new ArrayList<>(productIds.size());
+        int foundCount = 0;
+        for (Long productId : productIds) {
+            ProductResponse product = products.get(productId);
+            if (product != null) {
+                foundCount++;
+            }
+            results.add(new ProductLookupResponse.Result(productId, product != null, product));
+        }
+        return new ProductLookupResponse(results, foundCount, productIds.size() - foundCount);
+    }
+
+    private <T> List<List<T>> chunks(List<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            chunks.add(items.subList(from, Math.min(from + chunkSize, items.size())));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,57 @@
+package com.wjc.codetest.product.service;
+
+import com.wjc.codetest.product.model.response.ProductListResponse;
+import com.wjc.codetest.product.model.response.ProductResponse;
+import com.wjc.codetest.product.model.response.ProductTypeaheadResponse;
+import com.wjc.codetest.product.search.ProductSearchIndex;
+import com.wjc.codetest.product.search.ProductTypeahead;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+/*
+    상품명 검색
+
+        - LIKE '%x%' 테이블 스캔 대신 ProductSearchIndex(인메모리 역색인)에서 찾으므로 DB를 조회하지 않습니다.
+        - 결과는 관련도 순이며, 목록 조회와 같은 ProductListResponse(page, totalPages, totalElements)로 응답합니다.
+        - 자동완성은 ProductTypeahead의 trie에서 prefix 노드에 미리 계산된 상위 목록을 그대로 돌려줍니다.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductSearchService {
+
+    private static final int MAX_QUERY_LENGTH = 100;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductTypeahead productTypeahead;
+
+    public ProductListResponse search(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("query must not be blank");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("query must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("page must be >= 0 and size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Page<ProductResponse> result = productSearchIndex.search(query, PageRequest.of(page, size));
+        return new ProductListResponse(result.getContent(), result.getTotalPages(), result.getTotalElements(), result.getNumber());
+    }
+
+    public ProductTypeaheadResponse typeahead(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new IllegalArgumentException("prefix must not be blank");
+        }
+        if (prefix.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("prefix must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        if (limit < 1 || limit > productTypeahead.maxCompletions()) {
+            throw new IllegalArgumentException("limit must be between 1 and " + productTypeahead.maxCompletions());
+        }
+        return productTypeahead.complete(prefix, limit);
+    }
+}
@@ -1,22 +1,47 @@
 package com.wjc.codetest.product.service;
 
+import com.wjc.codetest.global.concurrent.SingleFlight;
+import com.wjc.codetest.product.cache.CategoryCache;
+import com.wjc.codetest.product.cache.CategorySnapshot;
+import com.wjc.codetest.product.cache.ProductCache;
+import com.wjc.codetest.product.category.CategoryDictionary;
+import com.wjc.codetest.product.exception.ProductNotFoundException;
+import com.wjc.codetest.product.exception.ProductPreconditionFailedException;
+import com.wjc.codetest.product.exception.ProductVersionConflictException;
+import com.wjc.codetest.product.model.event.ProductChangedEvent;
 import com.wjc.codetest.product.model.request.CreateProductRequest;
 import com.wjc.codetest.product.model.request.GetProductListRequest;
+import com.wjc.codetest.product.model.request.PagingMode;
 import com.wjc.codetest.product.model.domain.Product;
+import com.wjc.codetest.product.model.request.ProductCursor;
 import com.wjc.codetest.product.model.request.UpdateProductRequest;
+import com.wjc.codetest.product.model.response.ProductCategoryStatsResponse;
+import com.wjc.codetest.product.model.response.ProductListResponse;
+import com.wjc.codetest.product.model.response.ProductResponse;
 import com.wjc.codetest.product.repository.ProductRepository;
-import lombok.RequiredArgsConstructor;
+import com.wjc.codetest.product.repository.ProductView;
+import com.wjc.codetest.product.writebehind.ProductWriteBehindBuffer;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 @Slf4j // 로깅을 위한 코드가 아예 없으므로 삭제해도 무방해보입니다.
 @Service
-@RequiredArgsConstructor
 /*
     ps. 해당 클래스의 모든 메소드에 대한 공통 의견만 이 곳에 코멘트합니다.
         이후 각 메소드에는 메소드에만 국한되는 코멘트를 적었습니다. (각 메소드의 윗부분 or 내부)
@@ -42,7 +67,50 @@ import java.util.*;
  */
 public class ProductService {
 
+    private static final Sort PRODUCT_LIST_SORT = Sort.by(Sort.Direction.ASC, "category", "id");
+    // 상품 단건 조회 세대는 id 해시로 나눈 칸에 둡니다. (상품 수만큼 카운터를 만들지 않음, 2의 거듭제곱)
+    private static final int PRODUCT_GENERATION_STRIPES = 1024;
+
     private final ProductRepository productRepository;
+    private final ProductBulkService productBulkService;
+    private final CategoryCache categoryCache;
+    private final CategoryDictionary categoryDictionary;
+    private final ProductCache productCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductWriteBehindBuffer productWriteBehindBuffer;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate writeTransaction;
+
+    // 같은 상품/같은 목록 조건의 동시 조회를 하나의 DB 조회로 합칩니다.
+    // 키에 커밋된 쓰기 횟수(세대)를 넣어서, 쓰기가 커밋된 이후의 조회가 커밋 이전에 시작된 조회에 합류하지 않게 합니다.
+    // 세대는 목록은 카테고리별, 단건은 상품 id 칸별로 세므로, 쓰기는 그 쓰기가 바꾼 카테고리/상품의 조회만 새로 실행하게 합니다.
+    private final SingleFlight<ProductReadKey, ProductResponse> productReads;
+    private final SingleFlight<ListReadKey, ProductListResponse> listReads;
+    private final ConcurrentMap<String, AtomicLong> categoryGenerations = new ConcurrentHashMap<>();
+    private final AtomicLongArray productGenerations = new AtomicLongArray(PRODUCT_GENERATION_STRIPES);
+
+    public ProductService(ProductRepository productRepository,
+                          ProductBulkService productBulkService,
+                          CategoryCache categoryCache,
+                          CategoryDictionary categoryDictionary,
+                          ProductCache productCache,
+                          ApplicationEventPublisher eventPublisher,
+                          ProductWriteBehindBuffer productWriteBehindBuffer,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.productBulkService = productBulkService;
+        this.categoryCache = categoryCache;
+        this.categoryDictionary = categoryDictionary;
+        this.productCache = productCache;
+        this.eventPublisher = eventPublisher;
+        this.productWriteBehindBuffer = productWriteBehindBuffer;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.productReads = new SingleFlight<>("product", meterRegistry);
+        this.listReads = new SingleFlight<>("product.list", meterRegistry);
+    }
 
     /*
         [문제 및 의견] Entity 직접 생성
@@ -63,9 +131,16 @@ public class ProductService {
             1. Entity 인스턴스를 new로 만들고 검증되지 않은 입력값을 넣는 것에 대한 문제 해결이 필요
             2. 역시 리턴 형식 고려 필요
      */
-    public Product create(CreateProductRequest dto) {
-        Product product = new Product(dto.getCategory(), dto.getName());
-        return productRepository.save(product);
+    // 변경 이벤트는 커밋 이후에 구독자에게 전달되어야 하므로 쓰기 메소드는 트랜잭션 안에서 실행합니다.
+    public ProductResponse create(CreateProductRequest dto) {
+        // 새 카테고리면 사전에 먼저 등록해야 category_id로 저장할 수 있습니다.
+        // 등록은 별도 트랜잭션이므로 쓰기 트랜잭션을 열기 전에 합니다. (update와 같음)
+        categoryDictionary.register(dto.getCategory());
+        return writeTransaction.execute(status -> {
+            Product savedProduct = productRepository.save(new Product(dto.getCategory(), dto.getName()));
+            eventPublisher.publishEvent(ProductChangedEvent.created(savedProduct));
+            return ProductResponse.from(savedProduct);
+        });
     }
 
     /*
@@ -88,51 +163,149 @@ public class ProductService {
             1. 예외 처리 구체화 필요
             2. 애매하게 재사용되고 있는 메소드 -> 명확하게 개선 필요
      */
-    public Product getProductById(Long productId) {
-        Optional<Product> productOptional = productRepository.findById(productId);
-        if (!productOptional.isPresent()) {
-            throw new RuntimeException("product not found");
+    // 캐시 hit 시 커넥션을 잡지 않도록 트랜잭션을 걸지 않습니다. miss 시 조회는 repository의 readOnly 트랜잭션으로 실행됩니다.
+    // Caffeine도 같은 키 로딩을 하나로 합치지만, 합쳐진 호출 수를 지표로 남기기 위해 miss 경로를 single-flight로 감쌉니다.
+    public ProductResponse getProductById(Long productId) {
+        return withPendingUpdate(findProductById(productId));
+    }
+
+    private ProductResponse findProductById(Long productId) {
+        ProductResponse cached = productCache.getIfPresent(productId);
+        if (cached != null) {
+            return cached;
+        }
+        return productReads.execute(new ProductReadKey(productId, productGeneration(productId)),
+                () -> productCache.get(productId, id -> productRepository.findProjectedById(id)
+                        .map(ProductResponse::from)
+                        .orElseThrow(() -> new ProductNotFoundException(id))));
+    }
+
+    // read-your-writes: write-behind 버퍼에 아직 반영되지 않은 수정이 있으면 그 값으로 응답합니다.
+    // 반영 후 버전을 아직 모르므로 version은 비워서, 반영 전 버전의 ETag로 304가 나가지 않게 합니다.
+    private ProductResponse withPendingUpdate(ProductResponse product) {
+        UpdateProductRequest pending = productWriteBehindBuffer.pending(product.id());
+        if (pending == null) {
+            return product;
         }
-        return productOptional.get();
-        // Optional을 사용했지만 null 체크에 따른 분기 수행으로 코드가 작성돼있습니다.
-        // .orElseThrow() 형식으로 의도는 명확하게, 코드는 간결하게 바꾸는 방법도 고려해볼 수 있을 것 같습니다.
-        // 앞서 위에서 언급한 validator 사용과 결합해서 개선해보면 어떨까 합니다.
+        return new ProductResponse(product.id(), pending.getCategory(), pending.getName(), null);
     }
 
-    public Product update(UpdateProductRequest dto) {
+    public ProductResponse update(UpdateProductRequest dto) {
+        return update(dto, null);
+    }
+
+    // write-behind 모드(opt-in)의 수정: 버퍼에 넣고 바로 돌아갑니다. 기대 버전이 있는 수정은 받지 않습니다.
+    // 버퍼에 넣지 못했으면(꺼져 있음, 가득 참) false를 돌려주고, 호출한 쪽이 동기 수정으로 처리합니다.
+    // 없는 상품의 수정을 202로 받지 않도록 넣기 전에 존재를 확인합니다. (대부분 상품 캐시에서 확인되어 DB 조회 없음)
+    // 확인 이후 flush 전에 삭제된 상품은 flush에서 건너뜁니다.
+    public boolean updateBehind(UpdateProductRequest dto) {
+        if (dto.getId() == null || dto.getVersion() != null || !productWriteBehindBuffer.isEnabled()) {
+            return false;
+        }
+        findProductById(dto.getId());
+        return productWriteBehindBuffer.offer(dto);
+    }
+
+    /*
+        낙관적 락 수정
+
+            - 기대 버전(If-Match 헤더 우선, 없으면 본문 version)이 있으면 현재 행을 읽어 버전을 비교하고, 버전 조건을 건 UPDATE 한 번으로 반영합니다.
+              락을 잡고 기다리지 않으므로 동시 수정은 하나만 성공하고, 나머지는 최신 버전을 다시 읽어 재시도하면 됩니다.
+              읽은 버전 그대로 UPDATE가 성공했다면 읽은 행이 곧 변경 전 행이므로, 이벤트의 변경 전 카테고리도 정확합니다.
+            - 없는 상품은 먼저 읽을 때 알 수 있으므로 404와 409/412 구분에 추가 조회가 없습니다.
+            - 기대 버전이 없으면 기존처럼 마지막 요청이 반영됩니다. 변경 전 행을 행 락(FOR UPDATE)으로 읽은 뒤 UPDATE 하므로,
+              그 사이 다른 수정이 끼어들어 변경 전 카테고리나 응답 ETag의 새 버전(변경 전 버전 + 1)이 틀어지지 않습니다.
+            - 모두 표준 JPQL이라 DB에 의존하지 않습니다.
+            - write-behind 버퍼에 같은 상품의 수정이 남아 있으면 트랜잭션을 열기 전에 먼저 반영해서 요청 순서를 지킵니다.
+            - 새 카테고리도 트랜잭션을 열기 전에 사전에 등록합니다.
+     */
+    public ProductResponse update(UpdateProductRequest dto, Long ifMatchVersion) {
+        productWriteBehindBuffer.flushIfPending(dto.getId());
+        categoryDictionary.register(dto.getCategory());
+        return writeTransaction.execute(status -> updateInTransaction(dto, ifMatchVersion));
+    }
+
+    private ProductResponse updateInTransaction(UpdateProductRequest dto, Long ifMatchVersion) {
         // 역시 입력값 검증이 필요합니다.
         // 따로 비즈니스 규칙이 없다하더라도 최소 null 체크는 필요해보입니다.
-        Product product = getProductById(dto.getId());
-        // 이 부분은 domain/Product.java 에 언급한 내용과 연결됩니다.
-        // 필드 값을 변경한다는 의도가 명확한 이름을 가진 메소드(ex: update@@)로 대체할 수 있어보입니다.
-        // 단, controller에 작성한 메소드와 맥락을 통일하여 전체/일부 수정 중 어떻게 설계할 것인지에 따라
-        // 업데이트 메소드를 구현해보면 될 것 같습니다.
-        product.setCategory(dto.getCategory());
-        product.setName(dto.getName());
-        Product updatedProduct = productRepository.save(product);
-        return updatedProduct;
 
+        // 엔티티를 변경 후 save(merge) 하지 않고 UPDATE 한 번으로 처리합니다.
+        Long expectedVersion = ifMatchVersion != null ? ifMatchVersion : dto.getVersion();
+        if (expectedVersion == null) {
+            Product previous = productRepository.findForUpdateById(dto.getId())
+                    .orElseThrow(() -> new ProductNotFoundException(dto.getId()));
+            String previousCategory = previous.getCategory();
+            long version = previous.getVersion() + 1;
+            productRepository.updateById(dto.getId(), dto.getCategory(), dto.getName());
+            return publishUpdated(dto, previousCategory, version);
+        }
+
+        ProductView previous = productRepository.findProjectedById(dto.getId())
+                .orElseThrow(() -> new ProductNotFoundException(dto.getId()));
+        if (!expectedVersion.equals(previous.getVersion())
+                || productRepository.updateByIdAndVersion(dto.getId(), expectedVersion, dto.getCategory(), dto.getName()) == 0) {
+            if (ifMatchVersion != null) {
+                throw new ProductPreconditionFailedException(dto.getId(), expectedVersion);
+            }
+            throw new ProductVersionConflictException(dto.getId(), expectedVersion);
+        }
+        return publishUpdated(dto, previous.getCategory(), expectedVersion + 1);
+    }
+
+    private ProductResponse publishUpdated(UpdateProductRequest dto, String previousCategory, Long version) {
+        eventPublisher.publishEvent(ProductChangedEvent.updated(
+                dto.getId(), previousCategory, dto.getCategory(), dto.getName(), version));
+        return new ProductResponse(dto.getId(), dto.getCategory(), dto.getName(), version);
     }
 
     // 'public void deleteById()'
     // 개인적으로는 삭제의 경우라도, 비즈니스 로직을 수행하는 메소드가 void인 것을 선호하지 않습니다.
     // 최소한 어떤 데이터가 삭제됐는지, 성공했는지, 실패했는지 정도의 판단은 할 수 있도록 개선하면 어떨까 합니다.
     public void deleteById(Long productId) {
-        Product product = getProductById(productId);
-        productRepository.delete(product);
-        // 공통부분 언급에 언급한 내용입니다.
-        // (메소드 이름은 deleteById인데 실제 동작은 entity로 delete)
+        productWriteBehindBuffer.flushIfPending(productId);
+        writeTransaction.executeWithoutResult(status -> {
+            // 이벤트에 담을 변경 전 카테고리를 행 락으로 읽은 뒤, DELETE 한 번으로 처리합니다.
+            Product previous = productRepository.findForUpdateById(productId)
+                    .orElseThrow(() -> new ProductNotFoundException(productId));
+            String previousCategory = previous.getCategory();
+            productRepository.deleteProductById(productId);
+            eventPublisher.publishEvent(ProductChangedEvent.deleted(productId, previousCategory));
+        });
+    }
+
+    // 일괄 수정/삭제도 단건과 같이, 요청한 상품의 write-behind 수정을 트랜잭션을 열기 전에 먼저 반영합니다.
+    // (나중 flush가 일괄 수정을 덮어쓰거나, 버퍼에서 삭제된 상품을 되살리지 않도록)
+    public List<ProductResponse> updateAll(List<UpdateProductRequest> dtos) {
+        ProductBulkService.requireIds(dtos);
+        productWriteBehindBuffer.flushIfPending(dtos.stream().map(UpdateProductRequest::getId).toList());
+        return productBulkService.updateAll(dtos);
+    }
+
+    public int deleteAllById(List<Long> productIds) {
+        ProductBulkService.requireProductIds(productIds);
+        productWriteBehindBuffer.flushIfPending(productIds);
+        return productBulkService.deleteAllById(productIds);
+    }
+
+    // 조회 메소드는 readOnly 트랜잭션으로 묶어 content/count 쿼리가 커넥션 하나를 공유하고 flush를 생략합니다.
+    // 트랜잭션은 single-flight의 leader만 열어서, 합류한 요청은 결과를 기다리는 동안 커넥션을 잡지 않습니다.
+    public ProductListResponse getListByCategory(GetProductListRequest dto) {
+        return listReads.execute(ListReadKey.of(PagingMode.OFFSET, dto, categoryGeneration(dto.getCategory())),
+                () -> readOnlyTransaction.execute(status -> loadListByCategory(dto)));
     }
 
-    public Page<Product> getListByCategory(GetProductListRequest dto) {
+    private ProductListResponse loadListByCategory(GetProductListRequest dto) {
         // 현재 controller 메소드에서도 마찬가지이지만
         // dto.getPage, dto.getSize 에 대한 검증 처리가 필요해보입니다.
         // 만약 1.페이지 정보가 0 이하의 값이 입력되는 경우,
         //     2.category가 null인 경우
         // GlobalExceptionHandler에서 RuntimeException 발생하는 것 외에는
         // 아무 처리가 되어있지 않습니다.
-        PageRequest pageRequest = PageRequest.of(dto.getPage(), dto.getSize(), Sort.by(Sort.Direction.ASC, "category"));
-        return productRepository.findAllByCategory(dto.getCategory(), pageRequest);
+        // category는 조건절에서 이미 고정되므로 category만으로는 페이지 간 순서가 보장되지 않습니다.
+        // pk를 보조 정렬로 추가해서 순서를 고정하고, (category, product_id) 인덱스 순서와 맞춰 정렬 비용도 없앱니다.
+        PageRequest pageRequest = PageRequest.of(dto.getPage(), dto.getSize(), PRODUCT_LIST_SORT);
+        Page<ProductResponse> page = productRepository.findAllByCategory(dto.getCategory(), pageRequest).map(ProductResponse::from);
+        return new ProductListResponse(page.getContent(), page.getTotalPages(), page.getTotalElements(), page.getNumber());
         // 또한 반환 형식이 Page<Entity>로 되어 있으므로
         // Entity객체 내부의 모든 정보와 Page 정보에 대한 모든 데이터가
         // 그대로 응답에 노출되므로 역시 응답dto를 추가하는 것이 좋아보입니다.
@@ -142,12 +315,108 @@ public class ProductService {
         // link : https://docs.spring.io/spring-data/commons/reference/repositories/core-extensions.html#core.web.page
     }
 
+    public ProductListResponse getSliceByCategory(GetProductListRequest dto) {
+        return listReads.execute(ListReadKey.of(PagingMode.SLICE, dto, categoryGeneration(dto.getCategory())),
+                () -> readOnlyTransaction.execute(status -> loadSliceByCategory(dto)));
+    }
+
+    private ProductListResponse loadSliceByCategory(GetProductListRequest dto) {
+        PageRequest pageRequest = PageRequest.of(dto.getPage(), dto.getSize(), PRODUCT_LIST_SORT);
+        Slice<ProductResponse> slice = productRepository.findSliceByCategory(dto.getCategory(), pageRequest).map(ProductResponse::from);
+        // 전체 건수는 count 쿼리 대신 캐시된 근사치로 채웁니다.
+        return ProductListResponse.ofSlice(slice.getContent(), slice.getNumber(), slice.hasNext(), categoryCache.count(dto.getCategory()));
+    }
+
+    public ProductListResponse getListByCategoryAfter(GetProductListRequest dto) {
+        return listReads.execute(ListReadKey.of(PagingMode.CURSOR, dto, categoryGeneration(dto.getCategory())),
+                () -> readOnlyTransaction.execute(status -> loadListByCategoryAfter(dto)));
+    }
+
+    private ProductListResponse loadListByCategoryAfter(GetProductListRequest dto) {
+        if (dto.getSize() < 1) {
+            throw new IllegalArgumentException("size must be positive");
+        }
+
+        long lastId = 0L;
+        if (dto.getCursor() != null && !dto.getCursor().isBlank()) {
+            ProductCursor cursor = ProductCursor.decode(dto.getCursor());
+            if (!cursor.category().equals(dto.getCategory())) {
+                throw new IllegalArgumentException("cursor does not match category");
+            }
+            lastId = cursor.lastId();
+        }
+
+        // 한 건을 더 읽어서 다음 페이지 존재 여부를 count 쿼리 없이 판단합니다.
+        List<ProductResponse> rows = productRepository.findNextByCategory(dto.getCategory(), lastId, PageRequest.ofSize(dto.getSize() + 1))
+                .stream()
+                .map(ProductResponse::from)
+                .toList();
+        if (rows.size() <= dto.getSize()) {
+            return ProductListResponse.ofCursor(rows, null);
+        }
+
+        List<ProductResponse> content = rows.subList(0, dto.getSize());
+        Long nextLastId = content.get(content.size() - 1).id();
+        return ProductListResponse.ofCursor(content, new ProductCursor(dto.getCategory(), nextLastId).encode());
+    }
+
     // 기능 동작에 문제가 없고 응답이 단순히 product.category라면 역시 문제 없다고 생각합니다.
     // 현재 메소드 이름과 쿼리 메소드의 경우도
     // - getUniqueCategories(): 사람한테 직관적인 이름
     // - findDistinctCategories(): 쿼리 관점에서 직관적인 이름
     // 으로 구분하기 위한 의도라면 괜찮아보입니다.
-    public List<String> getUniqueCategories() {
-        return productRepository.findDistinctCategories();
+    //
+    // 카테고리 목록은 자주 바뀌지 않으므로 CategoryCache의 스냅샷으로 DB 조회 없이 응답합니다.
+    public CategorySnapshot getUniqueCategories() {
+        return categoryCache.snapshot();
+    }
+
+    // 대시보드용 카테고리별 상품 수: 카테고리마다 목록 api를 호출하지 않고 CategoryCache의 카운터로 한 번에 응답합니다.
+    public ProductCategoryStatsResponse getCategoryStats() {
+        return categoryCache.stats();
+    }
+
+    // 커밋된 쓰기마다 바뀐 상품과 변경 전/후 카테고리의 세대를 올려서 이후 조회가 새 single-flight 키를 쓰게 합니다.
+    // 카테고리를 옮긴 수정은 이전 카테고리 목록에서도 빠지므로 두 카테고리를 모두 올립니다.
+    // AFTER_COMMIT 리스너는 쓰기 요청 스레드에서 응답 전에 실행되므로, 쓴 클라이언트의 다음 조회는 항상 새로 실행됩니다.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.productId() != null) {
+            productGenerations.incrementAndGet(productGenerationStripe(event.productId()));
+        }
+        bumpCategoryGeneration(event.previousCategory());
+        if (!Objects.equals(event.previousCategory(), event.category())) {
+            bumpCategoryGeneration(event.category());
+        }
+    }
+
+    private void bumpCategoryGeneration(String category) {
+        if (category != null) {
+            categoryGenerations.computeIfAbsent(category, key -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    // 한 번도 쓰이지 않은 카테고리는 0입니다. (조회만으로는 맵에 넣지 않음)
+    long categoryGeneration(String category) {
+        AtomicLong generation = category == null ? null : categoryGenerations.get(category);
+        return generation == null ? 0L : generation.get();
+    }
+
+    private long productGeneration(Long productId) {
+        return productGenerations.get(productGenerationStripe(productId));
+    }
+
+    private static int productGenerationStripe(Long productId) {
+        return Long.hashCode(productId) & (PRODUCT_GENERATION_STRIPES - 1);
+    }
+
+    private record ProductReadKey(Long productId, long generation) {
+    }
+
+    private record ListReadKey(PagingMode mode, String category, int page, int size, String cursor, long generation) {
+
+        static ListReadKey of(PagingMode mode, GetProductListRequest dto, long generation) {
+            return new ListReadKey(mode, dto.getCategory(), dto.getPage(), dto.getSize(), dto.getCursor(), generation);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,65 @@
+package com.wjc.codetest.product.service;
+
+import com.wjc.codetest.product.feed.ProductChangeBroadcaster;
+import com.wjc.codetest.product.feed.ProductChangeOutbox;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+    카테고리 변경 구독(SSE)
+
+        - 목록을 주기적으로 다시 읽는 대신, 구독한 카테고리의 상품 생성/수정/삭제를 커밋 직후 받습니다.
+        - 첫 이벤트(subscribed)의 after는 구독 시점의 change feed 커서입니다.
+          연결 전 상태를 맞추거나 resync를 받았을 때는 GET /product/changes로 그 이후를 읽으면 되고,
+          스트림과 겹치는 변경은 changeId(SSE id)로 걸러내면 됩니다.
+        - 카테고리 이름은 저장된 그대로 비교합니다. 앞뒤 공백이 있는 이름은 400으로 거절합니다.
+        - 연결은 timeout이 지나면 서버가 닫습니다. 클라이언트(EventSource)는 자동으로 다시 연결합니다.
+ */
+@Service
+public class ProductSubscriptionService {
+
+    private static final int MAX_CATEGORIES = 20;
+
+    private final ProductChangeBroadcaster productChangeBroadcaster;
+    private final ProductChangeOutbox productChangeOutbox;
+    private final Duration timeout;
+
+    public ProductSubscriptionService(ProductChangeBroadcaster productChangeBroadcaster,
+                                      ProductChangeOutbox productChangeOutbox,
+                                      @Value("${product.subscription.timeout:30m}") Duration timeout) {
+        this.productChangeBroadcaster = productChangeBroadcaster;
+        this.productChangeOutbox = productChangeOutbox;
+        this.timeout = timeout;
+        productChangeOutbox.addCommitListener(productChangeBroadcaster::broadcast);
+    }
+
+    public SseEmitter subscribe(List<String> categories) {
+        if (categories == null || categories.isEmpty()) {
+            throw new IllegalArgumentException("at least one category is required");
+        }
+        Set<String> distinctCategories = new LinkedHashSet<>();
+        for (String category : categories) {
+            if (category == null || category.isBlank()) {
+                throw new IllegalArgumentException("category must not be blank");
+            }
+            // 상품 저장, 카테고리 사전, 이벤트 라우팅 모두 이름을 그대로 비교하므로 여기서만 trim하면 구독이 엇갈립니다.
+            if (!category.equals(category.strip())) {
+                throw new IllegalArgumentException("category must not have leading or trailing whitespace");
+            }
+            distinctCategories.add(category);
+        }
+        if (distinctCategories.size() > MAX_CATEGORIES) {
+            throw new IllegalArgumentException("up to " + MAX_CATEGORIES + " categories can be subscribed at once");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        productChangeBroadcaster.subscribe(distinctCategories, productChangeOutbox.committedUpTo(), emitter);
+        return emitter;
+    }
+}
@@ -0,0 +1,393 @@
+package com.wjc.codetest.product.writebehind;
+
+import com.wjc.codetest.product.model.request.UpdateProductRequest;
+import com.wjc.codetest.product.model.response.ProductResponse;
+import com.wjc.codetest.product.service.ProductBulkService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PessimisticLockException;
+import jakarta.persistence.QueryTimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+    상품 수정 write-behind 버퍼 (opt-in)
+
+        - 가격/보강 작업처럼 같은 상품을 짧은 간격으로 여러 번 수정하는 요청을 트랜잭션 하나씩 처리하지 않고,
+          상품 id별로 마지막 수정만 메모리에 모았다가 batch-size 단위 트랜잭션으로 한꺼번에 반영합니다.
+          (수정은 category/name 전체 교체이므로 마지막 요청만 반영하면 됩니다.)
+        - id 기준으로 나눈 stripe마다 락을 따로 두어, 동시에 들어오는 수정이 락 하나에서 경합하지 않게 합니다.
+        - flush 시점: flush-interval마다, 대기 건수가 flush-size에 도달했을 때, 애플리케이션 종료 시(동기).
+        - 대기 건수가 max-pending에 도달하면 더 받지 않고, 호출한 쪽이 기존처럼 동기 수정으로 처리합니다.
+        - read-your-writes: 아직 반영되지 않은(대기 중이거나 flush 중인) 수정은 pending()으로 조회에 덮어씌울 수 있습니다.
+        - 같은 상품에 대한 동기 수정/삭제(단건, 일괄 모두)는 flushIfPending()으로 그 상품들의 남은 수정만 먼저 반영한 뒤 실행해서
+          요청 순서를 지킵니다. 나중 flush가 동기 수정을 덮어쓰거나 삭제된 상품을 되살리지 않습니다.
+          이때 반영에 실패한 수정은 다시 넣지 않고 버립니다. 뒤따르는 동기 쓰기가 더 나중 요청이므로,
+          다시 넣으면 다음 flush가 더 오래된 값으로 동기 쓰기를 덮어쓰게 됩니다.
+          flush 도중 다른 수정과 @Version 충돌이 나면 다시 읽어서 한 번 더 시도합니다.
+        - 버퍼에 있는 동안 삭제된 상품은 flush에서 건너뜁니다.
+        - 배치 반영이 실패하면 한 행씩 다시 반영해서, 문제가 있는 한 행 때문에 나머지 수정이 막히지 않게 합니다.
+          일시적인 실패(커넥션, 락 대기 시간 초과 등)만 다음 flush로 다시 넣고, max-retries번 실패하면 버립니다.
+          제약 조건 위반처럼 다시 해도 실패할 수정은 바로 버립니다. 버린 수정은 로그와 dropped 지표로 남깁니다.
+        - 메모리에만 있으므로 프로세스가 비정상 종료되면 반영되지 않은 수정은 사라집니다. (유실을 허용하는 작업만 사용)
+        - 지표: product.write-behind.updates{result=buffered|coalesced|rejected},
+                product.write-behind.flushed{result=applied|skipped|requeued|dropped}, product.write-behind.pending
+ */
+@Slf4j
+@Component
+public class ProductWriteBehindBuffer {
+
+    private final ProductBulkService productBulkService;
+    private final boolean enabled;
+    private final int flushSize;
+    private final int maxPending;
+    private final int batchSize;
+    private final int maxRetries;
+
+    private final Stripe[] stripes;
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    // stripe에서 꺼내 반영 중인 수정. 커밋 전까지 조회에 보여야 하므로 따로 보관합니다.
+    private final ConcurrentMap<Long, UpdateProductRequest> inFlight = new ConcurrentHashMap<>();
+    // 일시적인 실패로 다시 넣은 수정의 실패 횟수. 반영되거나 버려지거나 새 수정으로 바뀌면 지웁니다.
+    private final ConcurrentMap<Long, Integer> failedAttempts = new ConcurrentHashMap<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ExecutorService flusher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean closed;
+
+    private final Counter buffered;
+    private final Counter coalesced;
+    private final Counter rejected;
+    private final Counter applied;
+    private final Counter skipped;
+    private final Counter requeued;
+    private final Counter dropped;
+
+    public ProductWriteBehindBuffer(ProductBulkService productBulkService,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${product.write-behind.enabled:false}") boolean enabled,
+                                    @Value("${product.write-behind.stripes:16}") int stripes,
+                                    @Value("${product.write-behind.flush-size:1000}") int flushSize,
+                                    @Value("${product.write-behind.max-pending:10000}") int maxPending,
+                                    @Value("${product.write-behind.batch-size:500}") int batchSize,
+                                    @Value("${product.write-behind.max-retries:3}") int maxRetries) {
+        this.productBulkService = productBulkService;
+        this.enabled = enabled;
+        this.flushSize = flushSize;
+        this.maxPending = maxPending;
+        this.batchSize = batchSize;
+        this.maxRetries = maxRetries;
+
+        // id & (길이 - 1) 로 stripe를 고르도록 2의 거듭제곱으로 맞춥니다.
+        int stripeCount = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe();
+        }
+
+        Gauge.builder("product.write-behind.pending", pendingCount, AtomicInteger::get).register(meterRegistry);
+        this.buffered = updatesCounter(meterRegistry, "buffered");
+        this.coalesced = updatesCounter(meterRegistry, "coalesced");
+        this.rejected = updatesCounter(meterRegistry, "rejected");
+        this.applied = flushedCounter(meterRegistry, "applied");
+        this.skipped = flushedCounter(meterRegistry, "skipped");
+        this.requeued = flushedCounter(meterRegistry, "requeued");
+        this.dropped = flushedCounter(meterRegistry, "dropped");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 버퍼에 넣었으면 true. 꺼져 있거나 종료 중이거나 가득 찼으면 false (호출한 쪽이 동기로 처리)
+    public boolean offer(UpdateProductRequest dto) {
+        if (!enabled || closed) {
+            return false;
+        }
+        if (pendingCount.get() >= maxPending) {
+            rejected.increment();
+            return false;
+        }
+
+        Stripe stripe = stripeOf(dto.getId());
+        stripe.lock.lock();
+        try {
+            failedAttempts.remove(dto.getId());
+            if (stripe.pending.put(dto.getId(), dto) == null) {
+                pendingCount.incrementAndGet();
+                buffered.increment();
+            } else {
+                coalesced.increment();
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        if (pendingCount.get() >= flushSize) {
+            requestFlush();
+        }
+        return true;
+    }
+
+    // 아직 DB에 반영되지 않은 마지막 수정. 없으면 null
+    public UpdateProductRequest pending(Long productId) {
+        if (!enabled) {
+            return null;
+        }
+        Stripe stripe = stripeOf(productId);
+        stripe.lock.lock();
+        try {
+            UpdateProductRequest pending = stripe.pending.get(productId);
+            if (pending != null) {
+                return pending;
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        return inFlight.get(productId);
+    }
+
+    // 동기 수정/삭제 전에 호출합니다. 같은 상품의 수정이 남아 있으면 (진행 중인 flush를 기다린 뒤) 그 수정만 반영합니다.
+    // flush가 자체 트랜잭션으로 커밋되어야 하므로 트랜잭션 밖에서 호출해야 합니다.
+    public void flushIfPending(Long productId) {
+        flushIfPending(List.of(productId));
+    }
+
+    // 일괄 수정/삭제용. 요청한 상품 중 남은 수정이 있는 것만 꺼내서 반영하고, 나머지 버퍼는 건드리지 않습니다.
+    public void flushIfPending(Collection<Long> productIds) {
+        if (!enabled || productIds.stream().noneMatch(productId -> pending(productId) != null)) {
+            return;
+        }
+        // 진행 중인 flush가 같은 상품을 반영하고 있을 수 있으므로 flushLock으로 끝나기를 기다립니다.
+        flushLock.lock();
+        try {
+            List<UpdateProductRequest> drained = drain(productIds);
+            for (int from = 0; from < drained.size(); from += batchSize) {
+                flushBatch(drained.subList(from, Math.min(from + batchSize, drained.size())), false);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public int pendingCount() {
+        return pendingCount.get();
+    }
+
+    @Scheduled(fixedDelayString = "${product.write-behind.flush-interval:200ms}",
+            initialDelayString = "${product.write-behind.flush-interval:200ms}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            flushRequested.set(false);
+            List<UpdateProductRequest> drained = drain();
+            for (int from = 0; from < drained.size(); from += batchSize) {
+                flushBatch(drained.subList(from, Math.min(from + batchSize, drained.size())), true);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // 종료 시에는 더 받지 않고, 남은 수정을 모두 반영한 뒤 끝냅니다.
+    @PreDestroy
+    void shutdown() {
+        closed = true;
+        flusher.shutdown();
+        flush();
+        if (pendingCount.get() > 0) {
+            log.warn("product write-behind shutdown with unflushed updates :: pending={}", pendingCount.get());
+        }
+    }
+
+    private void requestFlush() {
+        if (!flushRequested.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            flusher.execute(this::flush);
+        } catch (RejectedExecutionException e) {
+            // 종료 중에는 shutdown()이 직접 flush 합니다.
+            flushRequested.set(false);
+        }
+    }
+
+    // stripe를 하나씩 비우면서 inFlight로 옮깁니다. 옮기는 동안에도 stripe 락을 잡고 있으므로 조회는 둘 중 한 곳에서 찾습니다.
+    private List<UpdateProductRequest> drain() {
+        List<UpdateProductRequest> drained = new ArrayList<>(pendingCount.get());
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                if (stripe.pending.isEmpty()) {
+                    continue;
+                }
+                inFlight.putAll(stripe.pending);
+                drained.addAll(stripe.pending.values());
+                pendingCount.addAndGet(-stripe.pending.size());
+                stripe.pending = new HashMap<>();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return drained;
+    }
+
+    // 지정한 상품의 대기 중인 수정만 꺼내 inFlight로 옮깁니다. (drain()과 같은 순서로 stripe 락 안에서 옮김)
+    private List<UpdateProductRequest> drain(Collection<Long> productIds) {
+        List<UpdateProductRequest> drained = new ArrayList<>();
+        for (Long productId : productIds) {
+            Stripe stripe = stripeOf(productId);
+            stripe.lock.lock();
+            try {
+                UpdateProductRequest pending = stripe.pending.remove(productId);
+                if (pending != null) {
+                    inFlight.put(productId, pending);
+                    drained.add(pending);
+                    pendingCount.decrementAndGet();
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return drained;
+    }
+
+    // requeueFailures: 일시적인 실패를 다음 flush로 다시 넣을지. 동기 쓰기 직전의 flush는 false (실패하면 버림)
+    private void flushBatch(List<UpdateProductRequest> batch, boolean requeueFailures) {
+        try {
+            applyWithRetry(batch);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                handleFailure(batch.get(0), e, requeueFailures);
+                return;
+            }
+            // 어느 행 때문인지 모르므로 한 행씩 다시 반영해서, 실패한 행만 골라냅니다.
+            log.warn("product write-behind batch failed, applying one by one :: size={}, cause={}", batch.size(), e.getMessage());
+            for (UpdateProductRequest dto : batch) {
+                try {
+                    applyWithRetry(List.of(dto));
+                } catch (RuntimeException rowFailure) {
+                    handleFailure(dto, rowFailure, requeueFailures);
+                }
+            }
+        } finally {
+            batch.forEach(dto -> inFlight.remove(dto.getId(), dto));
+        }
+    }
+
+    private void applyWithRetry(List<UpdateProductRequest> batch) {
+        try {
+            apply(batch);
+        } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+            // 읽은 이후 다른 수정이 먼저 커밋된 경우입니다. 새 트랜잭션에서 다시 읽어서 한 번 더 시도합니다.
+            apply(batch);
+        }
+    }
+
+    private void apply(List<UpdateProductRequest> batch) {
+        List<ProductResponse> updated = productBulkService.updateAllExisting(batch);
+        applied.increment(updated.size());
+        skipped.increment(batch.size() - updated.size());
+        if (!failedAttempts.isEmpty()) {
+            batch.forEach(dto -> failedAttempts.remove(dto.getId()));
+        }
+    }
+
+    private void handleFailure(UpdateProductRequest dto, RuntimeException cause, boolean requeueFailures) {
+        int attempts = failedAttempts.merge(dto.getId(), 1, Integer::sum);
+        if (requeueFailures && isTransient(cause) && attempts <= maxRetries) {
+            requeue(dto, attempts, cause);
+        } else {
+            drop(dto, attempts, cause);
+        }
+    }
+
+    // 반영하지 못한 수정은 다음 flush로 넘깁니다. 그 사이 같은 상품에 새 수정이 들어왔으면 새 수정을 남깁니다.
+    private void requeue(UpdateProductRequest dto, int attempts, RuntimeException cause) {
+        Stripe stripe = stripeOf(dto.getId());
+        stripe.lock.lock();
+        try {
+            if (stripe.pending.putIfAbsent(dto.getId(), dto) == null) {
+                pendingCount.incrementAndGet();
+                requeued.increment();
+                log.warn("product write-behind update requeued :: productId={}, attempts={}, cause={}",
+                        dto.getId(), attempts, cause.getMessage());
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    // 버린 수정은 inFlight에서도 빠지므로 pending()이 더 이상 반영되지 않은 값을 보여주지 않습니다.
+    private void drop(UpdateProductRequest dto, int attempts, RuntimeException cause) {
+        failedAttempts.remove(dto.getId());
+        dropped.increment();
+        log.error("product write-behind update dropped :: productId={}, attempts={}, cause={}",
+                dto.getId(), attempts, cause.getMessage());
+    }
+
+    // 다시 시도하면 성공할 수 있는 실패 (커넥션 획득 실패, 락 대기 시간 초과, 일시적인 DB 오류)
+    // 트랜잭션 안의 flush에서 난 예외는 변환되지 않은 JPA 예외로 올 수 있어 함께 봅니다.
+    private static boolean isTransient(RuntimeException cause) {
+        return cause instanceof TransientDataAccessException
+                || cause instanceof LockTimeoutException
+                || cause instanceof PessimisticLockException
+                || cause instanceof QueryTimeoutException
+                || cause instanceof RecoverableDataAccessException
+                || cause instanceof CannotCreateTransactionException
+                || cause instanceof OptimisticLockingFailureException
+                || cause instanceof OptimisticLockException;
+    }
+
+    private Stripe stripeOf(Long productId) {
+        long id = productId;
+        int hash = (int) (id ^ (id >>> 32));
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private static Counter updatesCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("product.write-behind.updates").tag("result", result).register(meterRegistry);
+    }
+
+    private static Counter flushedCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("product.write-behind.flushed").tag("result", result).register(meterRegistry);
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        // flush 때마다 통째로 꺼내고 새 map으로 바꿉니다.
+        private Map<Long, UpdateProductRequest> pending = new HashMap<>();
+    }
+}
@@ -0,0 +1,16 @@
+-- products 테이블 초기 스키마
+-- 기존 ddl-auto=update 로 생성되던 구조에 (category, product_id) 복합 인덱스를 추가합니다.
+
+CREATE SEQUENCE products_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE products
+(
+    product_id BIGINT       NOT NULL,
+    category   VARCHAR(255),
+    name       VARCHAR(255),
+    CONSTRAINT pk_products PRIMARY KEY (product_id)
+);
+
+-- WHERE category = ? ORDER BY category, product_id (offset/slice/keyset 조회)와
+-- GROUP BY category (카테고리 목록 조회)를 인덱스만으로 처리하기 위한 복합 인덱스
+CREATE INDEX idx_products_category_id ON products (category, product_id);
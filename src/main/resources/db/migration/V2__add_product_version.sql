@@ -0,0 +1,4 @@
+-- 낙관적 락(@Version) 컬럼
+-- 기존 행은 0부터 시작하고, 수정될 때마다 1씩 증가합니다.
+
+ALTER TABLE products ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,19 @@
+-- 상품 변경 outbox (change feed)
+-- 상품 쓰기와 같은 트랜잭션에서 한 행씩 추가되고, change_id 순서로 /product/changes 에서 읽힙니다.
+
+CREATE SEQUENCE product_changes_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE product_changes
+(
+    change_id   BIGINT       NOT NULL,
+    product_id  BIGINT       NOT NULL,
+    change_type VARCHAR(16)  NOT NULL,
+    category    VARCHAR(255),
+    name        VARCHAR(255),
+    version     BIGINT,
+    changed_at  TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_product_changes PRIMARY KEY (change_id)
+);
+
+-- 보관 기간이 지난 행 정리(changed_at < ?)용
+CREATE INDEX idx_product_changes_changed_at ON product_changes (changed_at);
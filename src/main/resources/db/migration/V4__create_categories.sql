@@ -0,0 +1,30 @@
+-- 카테고리 사전 (column dictionary)
+-- 상품마다 반복 저장되던 category 문자열을 categories 테이블로 옮기고, products에는 정수 키(category_id)만 남깁니다.
+-- 행 크기와 (category, product_id) 인덱스가 작아지고, 카테고리 필터/GROUP BY가 문자열 대신 정수를 비교합니다.
+
+CREATE TABLE categories
+(
+    category_id INT          NOT NULL AUTO_INCREMENT,
+    name        VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_categories PRIMARY KEY (category_id),
+    CONSTRAINT uk_categories_name UNIQUE (name)
+);
+
+INSERT INTO categories (name)
+SELECT DISTINCT category FROM products WHERE category IS NOT NULL ORDER BY category;
+
+ALTER TABLE products ADD COLUMN category_id INT;
+
+UPDATE products
+SET category_id = (SELECT c.category_id FROM categories c WHERE c.name = products.category)
+WHERE category IS NOT NULL;
+
+DROP INDEX idx_products_category_id;
+ALTER TABLE products DROP COLUMN category;
+
+-- 기존과 같은 이름, 같은 순서의 복합 인덱스를 정수 키로 다시 만듭니다.
+-- 외래 키보다 먼저 만들어서 외래 키가 별도 인덱스를 만들지 않고 이 인덱스를 사용하게 합니다.
+CREATE INDEX idx_products_category_id ON products (category_id, product_id);
+
+ALTER TABLE products
+    ADD CONSTRAINT fk_products_category FOREIGN KEY (category_id) REFERENCES categories (category_id);
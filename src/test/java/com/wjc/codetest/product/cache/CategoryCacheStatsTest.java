@@ -0,0 +1,88 @@
+package com.wjc.codetest.product.cache;
+
+import com.wjc.codetest.product.model.request.CreateProductRequest;
+import com.wjc.codetest.product.model.request.UpdateProductRequest;
+import com.wjc.codetest.product.model.response.ProductCategoryStatsResponse.CategoryStat;
+import com.wjc.codetest.product.model.response.ProductResponse;
+import com.wjc.codetest.product.service.ProductBulkService;
+import com.wjc.codetest.product.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+    카테고리별 상품 수 카운터
+
+        - 쓰기 이벤트로 증감하는 값과, GROUP BY 재적재로 보정되는 값을 함께 확인합니다.
+        - 다른 테스트의 상품과 섞이지 않도록 고유한 카테고리 이름만 골라서 비교합니다.
+ */
+@SpringBootTest
+class CategoryCacheStatsTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductBulkService productBulkService;
+
+    @Autowired
+    private CategoryCache categoryCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void countsFollowWritesAndReconcileWithGroupBy() {
+        ProductResponse first = productService.create(new CreateProductRequest("stats-a", "first"));
+        ProductResponse second = productService.create(new CreateProductRequest("stats-a", "second"));
+        productService.create(new CreateProductRequest("stats-b", "third"));
+        assertThat(statsOf("stats-")).containsExactly(new CategoryStat("stats-a", 2L), new CategoryStat("stats-b", 1L));
+
+        // 일괄 수정은 변경 전 카테고리를 알고 있으므로 바로 정확한 값
+        productBulkService.updateAll(List.of(new UpdateProductRequest(first.id(), "stats-b", "first")));
+        assertThat(statsOf("stats-")).containsExactly(new CategoryStat("stats-a", 1L), new CategoryStat("stats-b", 2L));
+
+        // 단건 수정도 같은 트랜잭션에서 변경 전 행을 먼저 읽으므로 재적재 없이 바로 정확합니다.
+        productService.update(new UpdateProductRequest(second.id(), "stats-b", "second"));
+        assertThat(statsOf("stats-")).containsExactly(new CategoryStat("stats-b", 3L));
+
+        // 이벤트 없이 DB가 바뀐 경우도 주기적인 재적재가 보정합니다.
+        jdbcTemplate.update("INSERT INTO categories (name) VALUES ('stats-c')");
+        jdbcTemplate.update("INSERT INTO products (product_id, category_id, name) " +
+                "SELECT NEXT VALUE FOR products_seq, category_id, 'direct' FROM categories WHERE name = 'stats-c'");
+        categoryCache.reconcile();
+        assertThat(statsOf("stats-")).containsExactly(new CategoryStat("stats-b", 3L), new CategoryStat("stats-c", 1L));
+        assertThat(productService.getCategoryStats().lastReconciledAt()).isNotNull();
+    }
+
+    @Test
+    void singleUpdateKeepsCountAndSingleDeleteDropsEmptiedCategory() {
+        String category = "single-write-stats";
+        ProductResponse product = productService.create(new CreateProductRequest(category, "only"));
+        CategorySnapshot before = productService.getUniqueCategories();
+
+        // 카테고리가 그대로인 수정은 카운트를 바꾸지 않습니다. (조건 없는 수정, If-Match 수정 모두)
+        productService.update(new UpdateProductRequest(product.id(), category, "renamed"));
+        productService.update(new UpdateProductRequest(product.id(), category, "renamed-again"), product.version() + 1);
+        assertThat(categoryCache.count(category)).isEqualTo(1L);
+        assertThat(productService.getUniqueCategories().etag()).isEqualTo(before.etag());
+
+        // 마지막 상품이 삭제되면 재적재를 기다리지 않고 바로 목록에서 빠지고 etag가 바뀝니다.
+        productService.deleteById(product.id());
+        CategorySnapshot after = productService.getUniqueCategories();
+        assertThat(categoryCache.count(category)).isZero();
+        assertThat(after.categories()).doesNotContain(category);
+        assertThat(after.etag()).isNotEqualTo(before.etag());
+    }
+
+    private List<CategoryStat> statsOf(String categoryPrefix) {
+        return productService.getCategoryStats().categories().stream()
+                .filter(stat -> stat.category().startsWith(categoryPrefix))
+                .toList();
+    }
+}
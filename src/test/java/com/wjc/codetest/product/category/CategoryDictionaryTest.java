@@ -0,0 +1,145 @@
+package com.wjc.codetest.product.category;
+
+import com.wjc.codetest.product.exception.ProductNotFoundException;
+import com.wjc.codetest.product.model.request.CreateProductRequest;
+import com.wjc.codetest.product.model.request.GetProductListRequest;
+import com.wjc.codetest.product.model.request.UpdateProductRequest;
+import com.wjc.codetest.product.model.response.ProductListResponse;
+import com.wjc.codetest.product.model.response.ProductResponse;
+import com.wjc.codetest.product.repository.ProductRepository;
+import com.wjc.codetest.product.service.ProductBulkService;
+import com.wjc.codetest.product.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+    카테고리 사전
+
+        - 상품에는 정수 키만 저장되고, 조회/목록/수정은 카테고리 이름으로 그대로 동작하는지
+        - 없는 카테고리 조회는 사전을 늘리지 않고, 다른 인스턴스가 등록한 카테고리도 읽을 수 있는지 확인합니다.
+        - 없던 이름은 잠시 DB를 다시 보지 않지만, 이 인스턴스가 등록하면 바로 보이는지 확인합니다.
+        - 다른 테스트와 섞이지 않도록 매번 고유한 카테고리 이름을 씁니다.
+ */
+@SpringBootTest
+class CategoryDictionaryTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductBulkService productBulkService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryDictionary categoryDictionary;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void productsStoreCategoryKeyAndReadCategoryName() {
+        String category = uniqueCategory();
+        ProductResponse first = productService.create(new CreateProductRequest(category, "first"));
+        productBulkService.createAll(List.of(new CreateProductRequest(category, "second")));
+
+        assertThat(categoryRows(category)).isEqualTo(1);
+        Integer categoryId = jdbcTemplate.queryForObject("SELECT category_id FROM products WHERE product_id = ?", Integer.class, first.id());
+        assertThat(categoryId).isEqualTo(categoryDictionary.idOf(category));
+
+        assertThat(productService.getProductById(first.id()).category()).isEqualTo(category);
+        ProductListResponse list = productService.getListByCategory(listRequest(category));
+        assertThat(list.getProducts()).extracting(ProductResponse::category).containsExactly(category, category);
+        assertThat(productService.getUniqueCategories().categories()).contains(category);
+    }
+
+    @Test
+    void updateMovesProductToNewCategory() {
+        String before = uniqueCategory();
+        String after = uniqueCategory();
+        ProductResponse product = productService.create(new CreateProductRequest(before, "moving"));
+
+        productService.update(new UpdateProductRequest(product.id(), after, "moved"));
+
+        assertThat(productRepository.findProjectedById(product.id()).orElseThrow().getCategory()).isEqualTo(after);
+        assertThat(productService.getListByCategory(listRequest(before)).getProducts()).isEmpty();
+        assertThat(productService.getListByCategory(listRequest(after)).getProducts()).hasSize(1);
+    }
+
+    @Test
+    void readingUnknownCategoryDoesNotRegisterIt() {
+        String category = uniqueCategory();
+
+        assertThat(productService.getListByCategory(listRequest(category)).getProducts()).isEmpty();
+
+        assertThat(categoryDictionary.idOf(category)).isEqualTo(CategoryDictionary.UNKNOWN_ID);
+        assertThat(categoryRows(category)).isZero();
+    }
+
+    @Test
+    void categoryRegisteredElsewhereIsResolvedFromDatabase() {
+        String category = uniqueCategory();
+        ProductResponse product = productService.create(new CreateProductRequest(uniqueCategory(), "moved elsewhere"));
+
+        // 다른 인스턴스가 등록하고 쓴 경우처럼, 이 인스턴스의 사전을 거치지 않고 DB만 바꿉니다.
+        jdbcTemplate.update("INSERT INTO categories (name) VALUES (?)", category);
+        jdbcTemplate.update("UPDATE products SET category_id = (SELECT category_id FROM categories WHERE name = ?) WHERE product_id = ?",
+                category, product.id());
+
+        assertThat(productRepository.findProjectedById(product.id()).orElseThrow().getCategory()).isEqualTo(category);
+        assertThat(productService.getListByCategory(listRequest(category)).getProducts()).hasSize(1);
+    }
+
+    @Test
+    void unknownCategoryIsRememberedUntilRegisteredHere() {
+        String category = uniqueCategory();
+        assertThat(categoryDictionary.idOf(category)).isEqualTo(CategoryDictionary.UNKNOWN_ID);
+
+        // 없던 이름은 기억해 두므로, DB에 바로 추가된 행은 unknown-name-ttl 동안 다시 조회하지 않습니다.
+        jdbcTemplate.update("INSERT INTO categories (name) VALUES (?)", category);
+        assertThat(categoryDictionary.idOf(category)).isEqualTo(CategoryDictionary.UNKNOWN_ID);
+
+        // 이 인스턴스가 등록하면(이미 있으면 그 id를 읽어옴) 기억해 둔 값을 지우고 바로 쓸 수 있습니다.
+        ProductResponse product = productService.create(new CreateProductRequest(category, "registered later"));
+        Integer categoryId = jdbcTemplate.queryForObject("SELECT category_id FROM categories WHERE name = ?", Integer.class, category);
+        assertThat(categoryDictionary.idOf(category)).isEqualTo(categoryId);
+        assertThat(productService.getProductById(product.id()).category()).isEqualTo(category);
+    }
+
+    @Test
+    void registeredCategorySurvivesRolledBackWrite() {
+        String category = uniqueCategory();
+
+        assertThatThrownBy(() -> productBulkService.updateAll(List.of(new UpdateProductRequest(Long.MAX_VALUE, category, "missing"))))
+                .isInstanceOf(ProductNotFoundException.class);
+
+        // 등록은 별도 트랜잭션으로 커밋되므로, 상품 쓰기가 롤백되어도 사전의 id로 저장할 수 있습니다.
+        assertThat(categoryRows(category)).isEqualTo(1);
+        ProductResponse product = productService.create(new CreateProductRequest(category, "after rollback"));
+        assertThat(productService.getProductById(product.id()).category()).isEqualTo(category);
+    }
+
+    private int categoryRows(String category) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM categories WHERE name = ?", Integer.class, category);
+    }
+
+    private static GetProductListRequest listRequest(String category) {
+        GetProductListRequest request = new GetProductListRequest();
+        request.setCategory(category);
+        request.setSize(10);
+        return request;
+    }
+
+    private static String uniqueCategory() {
+        return "dictionary-" + UUID.randomUUID();
+    }
+}
@@ -0,0 +1,19 @@
+package com.wjc.codetest.product.controller;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+// 기본 모드: Tomcat 플랫폼 스레드 풀(기본 최대 200)에서 요청을 처리합니다.
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.threads.virtual.enabled=false",
+                "spring.jpa.show-sql=false"
+        }
+)
+class PlatformThreadLoadTest extends ProductControllerLoadTestSupport {
+
+    @Override
+    protected String mode() {
+        return "platform";
+    }
+}
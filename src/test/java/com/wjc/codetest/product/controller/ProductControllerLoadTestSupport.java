@@ -0,0 +1,128 @@
+package com.wjc.codetest.product.controller;
+
+import com.wjc.codetest.product.model.request.CreateProductRequest;
+import com.wjc.codetest.product.model.response.ProductResponse;
+import com.wjc.codetest.product.service.ProductBulkService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+    ProductController 부하 테스트 공통 로직
+
+        - CONCURRENCY 개 클라이언트가 DURATION 동안 단건 조회와 목록 조회(DB 조회)를 번갈아 호출합니다.
+        - 처리량(req/s)과 p50/p99 지연을 로그로 남기고, 오류 응답이 없는지만 검증합니다.
+        - 하위 클래스가 스레드 모드(플랫폼/가상)별 설정으로 컨텍스트를 띄웁니다.
+        - 실행 시간이 길어서 기본 test 태스크에서는 제외하고 loadTest 태스크로만 실행합니다.
+ */
+@Slf4j
+@Tag("load")
+abstract class ProductControllerLoadTestSupport {
+
+    private static final int CONCURRENCY = 500;
+    private static final Duration DURATION = Duration.ofSeconds(20);
+    private static final int SEED_ROWS = 10_000;
+    private static final String CATEGORY = "load-test";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProductBulkService productBulkService;
+
+    protected abstract String mode();
+
+    @Test
+    void throughputAndTailLatencyUnderHighConcurrency() throws Exception {
+        List<Long> productIds = seed();
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(32))
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + DURATION.toNanos();
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENCY);
+        List<Future<List<Long>>> results = new ArrayList<>(CONCURRENCY);
+        for (int i = 0; i < CONCURRENCY; i++) {
+            results.add(clients.submit(() -> {
+                List<Long> latencies = new ArrayList<>();
+                while (System.nanoTime() < deadline) {
+                    long startedAt = System.nanoTime();
+                    HttpResponse<Void> response = client.send(nextRequest(productIds), HttpResponse.BodyHandlers.discarding());
+                    latencies.add(System.nanoTime() - startedAt);
+                    if (response.statusCode() != 200) {
+                        errors.incrementAndGet();
+                    }
+                }
+                return latencies;
+            }));
+        }
+
+        List<Long> allLatencies = new ArrayList<>();
+        for (Future<List<Long>> result : results) {
+            allLatencies.addAll(result.get());
+        }
+        clients.shutdown();
+
+        long[] sorted = allLatencies.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        log.info("controller load test :: mode={}, concurrency={}, requests={}, throughput={} req/s, p50={} ms, p99={} ms, errors={}",
+                mode(), CONCURRENCY, sorted.length,
+                sorted.length / DURATION.toSeconds(),
+                percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99),
+                errors.get());
+
+        assertThat(sorted).isNotEmpty();
+        assertThat(errors.get()).isZero();
+    }
+
+    private HttpRequest nextRequest(List<Long> productIds) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextBoolean()) {
+            Long productId = productIds.get(random.nextInt(productIds.size()));
+            return HttpRequest.newBuilder(uri("/get/product/by/" + productId)).GET().build();
+        }
+
+        String body = "{\"category\":\"" + CATEGORY + "\",\"page\":" + random.nextInt(100) + ",\"size\":20}";
+        return HttpRequest.newBuilder(uri("/product/list"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private List<Long> seed() {
+        List<CreateProductRequest> requests = IntStream.range(0, SEED_ROWS)
+                .mapToObj(i -> new CreateProductRequest(CATEGORY, "product-" + i))
+                .toList();
+        return productBulkService.createAll(requests).stream().map(ProductResponse::id).toList();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(percentile * sortedNanos.length) - 1);
+        return sortedNanos[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,209 @@
+package com.wjc.codetest.product.controller;
+
+import com.wjc.codetest.global.metrics.SqlStatementListener;
+import com.wjc.codetest.product.model.request.CreateProductRequest;
+import com.wjc.codetest.product.model.response.ProductResponse;
+import com.wjc.codetest.product.service.ProductService;
+import com.wjc.codetest.support.SqlStatementBudget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+    ProductController 엔드포인트별 SQL 실행 횟수 상한
+
+        - 상한을 넘기면 N+1이나 불필요한 선조회가 추가된 것이므로 테스트가 실패합니다.
+        - 생성 계열의 +1은 pooled 시퀀스 호출(50건마다 1회) 여유분입니다.
+        - 쓰기 계열은 같은 트랜잭션의 outbox(product_changes) INSERT 배치 1회와 그 시퀀스 호출 여유분 1회를 더 씁니다.
+        - 리스너의 누적 횟수로 세므로, 주기적인 CategoryCache 전체 재적재(GROUP BY)가 섞이지 않도록 주기를 늘립니다.
+ */
+@SpringBootTest(properties = "product.category-cache.full-reconcile-interval=1h")
+@AutoConfigureMockMvc
+class ProductControllerStatementBudgetTest {
+
+    private static final String CATEGORY = "statement-budget";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SqlStatementListener sqlStatementListener;
+
+    private SqlStatementBudget statementBudget;
+    private ProductResponse product;
+    private ProductResponse another;
+
+    @BeforeEach
+    void setUp() {
+        statementBudget = new SqlStatementBudget(sqlStatementListener);
+        product = productService.create(new CreateProductRequest(CATEGORY, "product"));
+        another = productService.create(new CreateProductRequest(CATEGORY, "another"));
+    }
+
+    @Test
+    void getProductById() throws Exception {
+        statementBudget.assertAtMost(1, () -> mockMvc.perform(get("/get/product/by/{productId}", product.id()))
+                .andExpect(status().isOk()));
+        // 두 번째 조회는 캐시에서 응답합니다.
+        statementBudget.assertAtMost(0, () -> mockMvc.perform(get("/get/product/by/{productId}", product.id()))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void getProductsByIds() throws Exception {
+        statementBudget.assertAtMost(1, () -> mockMvc.perform(post("/get/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + product.id() + "," + Long.MAX_VALUE + "," + another.id() + "]"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void createProduct() throws Exception {
+        statementBudget.assertAtMost(4, () -> mockMvc.perform(post("/create/product")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(CATEGORY, "created")))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void updateProduct() throws Exception {
+        // 조건 없는 수정: 변경 전 행 읽기(FOR UPDATE) + UPDATE 한 번(새 버전 = 이전 버전 + 1) + outbox(+ 시퀀스)
+        statementBudget.assertAtMost(4, () -> mockMvc.perform(post("/update/product")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":" + product.id() + ",\"category\":\"" + CATEGORY + "\",\"name\":\"updated\"}"))
+                .andExpect(status().isOk()));
+        // If-Match 조건부 수정: 변경 전 행 읽기 + 버전 조건을 건 UPDATE 한 번 + outbox(+ 시퀀스)
+        statementBudget.assertAtMost(4, () -> mockMvc.perform(post("/update/product")
+                        .header(HttpHeaders.IF_MATCH, "\"" + (product.version() + 1) + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":" + product.id() + ",\"category\":\"" + CATEGORY + "\",\"name\":\"updated-again\"}"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void deleteProduct() throws Exception {
+        // 변경 전 행 읽기(FOR UPDATE) + DELETE + outbox(+ 시퀀스)
+        statementBudget.assertAtMost(4, () -> mockMvc.perform(post("/delete/product/{productId}", product.id()))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void updateOrDeleteMissingProduct() throws Exception {
+        long missingId = Long.MAX_VALUE;
+        statementBudget.assertAtMost(1, () -> mockMvc.perform(post("/update/product")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":" + missingId + ",\"category\":\"" + CATEGORY + "\",\"name\":\"missing\"}"))
+                .andExpect(status().isNotFound()));
+        statementBudget.assertAtMost(1, () -> mockMvc.perform(post("/delete/product/{productId}", missingId))
+                .andExpect(status().isNotFound()));
+    }
+
+    @Test
+    void createProducts() throws Exception {
+        statementBudget.assertAtMost(4, () -> mockMvc.perform(post("/create/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + json(CATEGORY, "bulk-1") + "," + json(CATEGORY, "bulk-2") + "," + json(CATEGORY, "bulk-3") + "]"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void updateProducts() throws Exception {
+        statementBudget.assertAtMost(4, () -> mockMvc.perform(post("/update/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"id\":" + product.id() + ",\"category\":\"" + CATEGORY + "\",\"name\":\"bulk-updated\"},"
+                                + "{\"id\":" + another.id() + ",\"category\":\"" + CATEGORY + "\",\"name\":\"bulk-updated\"}]"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void deleteProducts() throws Exception {
+        statementBudget.assertAtMost(4, () -> mockMvc.perform(post("/delete/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + product.id() + "," + another.id() + "]"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void bulkRequestsWithoutIdAreRejectedBeforeAnyStatement() throws Exception {
+        statementBudget.assertAtMost(0, () -> mockMvc.perform(post("/update/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"id\":" + product.id() + ",\"category\":\"" + CATEGORY + "\",\"name\":\"bulk-updated\"},"
+                                + json(CATEGORY, "no-id") + "]"))
+                .andExpect(status().isBadRequest()));
+        statementBudget.assertAtMost(0, () -> mockMvc.perform(post("/delete/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + product.id() + ",null]"))
+                .andExpect(status().isBadRequest()));
+    }
+
+    @Test
+    void getProductListByCategory() throws Exception {
+        // OFFSET: content + count
+        statementBudget.assertAtMost(2, () -> mockMvc.perform(post("/product/list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"category\":\"" + CATEGORY + "\",\"page\":0,\"size\":10}"))
+                .andExpect(status().isOk()));
+        // SLICE / CURSOR: count 쿼리 없이 한 번
+        statementBudget.assertAtMost(1, () -> mockMvc.perform(post("/product/list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"category\":\"" + CATEGORY + "\",\"page\":0,\"size\":10,\"mode\":\"SLICE\"}"))
+                .andExpect(status().isOk()));
+        statementBudget.assertAtMost(1, () -> mockMvc.perform(post("/product/list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"category\":\"" + CATEGORY + "\",\"size\":10,\"mode\":\"CURSOR\"}"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void importProducts() throws Exception {
+        statementBudget.assertAtMost(4, () -> mockMvc.perform(post("/import/products")
+                        .contentType("application/x-ndjson")
+                        .content(json(CATEGORY, "import-1") + "\n" + json(CATEGORY, "import-2") + "\n"))
+                .andExpect(status().isOk()));
+        statementBudget.assertAtMost(4, () -> mockMvc.perform(post("/import/products")
+                        .contentType("text/csv")
+                        .content("category,name\n" + CATEGORY + ",import-3\n"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void exportProductsByCategory() throws Exception {
+        statementBudget.assertAtMost(1, () -> {
+            MvcResult result = mockMvc.perform(get("/product/export").param("category", CATEGORY))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+        });
+    }
+
+    @Test
+    void getUniqueCategories() throws Exception {
+        statementBudget.assertAtMost(0, () -> mockMvc.perform(get("/product/category/list"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void getCategoryStats() throws Exception {
+        statementBudget.assertAtMost(0, () -> mockMvc.perform(get("/product/category/stats"))
+                .andExpect(status().isOk()));
+    }
+
+    private static String json(String category, String name) {
+        return "{\"category\":\"" + category + "\",\"name\":\"" + name + "\"}";
+    }
+}
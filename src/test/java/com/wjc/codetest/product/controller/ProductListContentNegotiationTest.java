@@ -0,0 +1,145 @@
+package com.wjc.codetest.product.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.wjc.codetest.product.model.request.CreateProductRequest;
+import com.wjc.codetest.product.model.response.ProductResponse;
+import com.wjc.codetest.product.service.ProductBulkService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+    목록 응답 포맷/압축 협상
+
+        - Accept로 CBOR, Smile을 요청하면 같은 내용을 해당 포맷으로 응답하는지
+        - 포맷마다 바이트가 다른 카테고리 목록은 weak ETag로 응답하고, If-None-Match는 포맷과 관계없이 304가 되는지
+        - Accept-Encoding: gzip 요청에서 min-response-size 이상인 응답만 압축되는지 (압축은 Tomcat이 하므로 실제 포트로 요청)
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+class ProductListContentNegotiationTest {
+
+    private static final String CATEGORY = "negotiation";
+    private static final int PAGE_SIZE = 100;
+    private static final String LIST_REQUEST = "{\"category\":\"" + CATEGORY + "\",\"page\":0,\"size\":" + PAGE_SIZE + "}";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductBulkService productBulkService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<ProductResponse> products;
+
+    @BeforeEach
+    void setUp() {
+        List<CreateProductRequest> requests = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            requests.add(new CreateProductRequest(CATEGORY, "negotiated product " + i));
+        }
+        products = productBulkService.createAll(requests);
+    }
+
+    @Test
+    void listIsServedAsJsonCborOrSmileByAccept() throws Exception {
+        JsonNode json = objectMapper.readTree(list(MediaType.APPLICATION_JSON_VALUE));
+        JsonNode cbor = new CBORMapper().readTree(list(MediaType.APPLICATION_CBOR_VALUE));
+        JsonNode smile = new SmileMapper().readTree(list("application/x-jackson-smile"));
+
+        assertThat(json.get("products")).hasSize(PAGE_SIZE);
+        assertThat(cbor).isEqualTo(json);
+        assertThat(smile).isEqualTo(json);
+    }
+
+    @Test
+    void categoryListIsServedAsCbor() throws Exception {
+        byte[] body = mockMvc.perform(get("/product/category/list").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        List<String> categories = new ArrayList<>();
+        new CBORMapper().readTree(body).forEach(node -> categories.add(node.asText()));
+        assertThat(categories).contains(CATEGORY);
+    }
+
+    @Test
+    void categoryListEtagIsWeakAcrossFormats() throws Exception {
+        String jsonEtag = mockMvc.perform(get("/product/category/list").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String cborEtag = mockMvc.perform(get("/product/category/list").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(jsonEtag).startsWith("W/\"");
+        assertThat(cborEtag).isEqualTo(jsonEtag);
+        mockMvc.perform(get("/product/category/list").accept(MediaType.APPLICATION_CBOR).header(HttpHeaders.IF_NONE_MATCH, jsonEtag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void onlyResponsesAboveThresholdAreGzipped() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+
+        HttpResponse<byte[]> page = client.send(HttpRequest.newBuilder(uri("/product/list"))
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .POST(HttpRequest.BodyPublishers.ofString(LIST_REQUEST))
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(page.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).hasValue("gzip");
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(page.body()))) {
+            assertThat(objectMapper.readTree(in).get("products")).hasSize(PAGE_SIZE);
+        }
+
+        HttpResponse<byte[]> single = client.send(HttpRequest.newBuilder(uri("/get/product/by/" + products.get(0).id()))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(single.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).isEmpty();
+    }
+
+    private byte[] list(String accept) throws Exception {
+        return mockMvc.perform(post("/product/list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(accept)
+                        .content(LIST_REQUEST))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(accept))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,138 @@
+package com.wjc.codetest.product.controller;
+
+import com.wjc.codetest.product.model.request.CreateProductRequest;
+import com.wjc.codetest.product.model.response.ProductResponse;
+import com.wjc.codetest.product.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+    낙관적 락 + 조건부 요청
+
+        - 단건 조회/수정 응답의 ETag는 버전이고, If-None-Match 일치 시 304
+        - If-Match 불일치는 412, 본문 version 불일치는 409
+        - 같은 버전으로 동시에 수정하면 하나만 성공하고 나머지는 충돌 응답을 받습니다.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProductOptimisticLockingTest {
+
+    private static final String CATEGORY = "optimistic-locking";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    private ProductResponse product;
+
+    @BeforeEach
+    void setUp() {
+        product = productService.create(new CreateProductRequest(CATEGORY, "product"));
+    }
+
+    @Test
+    void getReturnsVersionAsETagAndHonoursIfNoneMatch() throws Exception {
+        mockMvc.perform(get("/get/product/by/{productId}", product.id()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(jsonPath("$.version").value(0));
+
+        mockMvc.perform(get("/get/product/by/{productId}", product.id()).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void updateWithMatchingIfMatchReturnsNextVersion() throws Exception {
+        mockMvc.perform(update("renamed").header(HttpHeaders.IF_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.version").value(1));
+
+        mockMvc.perform(get("/get/product/by/{productId}", product.id()))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.name").value("renamed"));
+    }
+
+    @Test
+    void staleIfMatchIsRejectedWithPreconditionFailed() throws Exception {
+        mockMvc.perform(update("first").header(HttpHeaders.IF_MATCH, "\"0\"")).andExpect(status().isOk());
+
+        mockMvc.perform(update("second").header(HttpHeaders.IF_MATCH, "\"0\""))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void staleBodyVersionIsRejectedWithConflict() throws Exception {
+        mockMvc.perform(update("first").header(HttpHeaders.IF_MATCH, "\"0\"")).andExpect(status().isOk());
+
+        mockMvc.perform(post("/update/product")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":" + product.id() + ",\"category\":\"" + CATEGORY + "\",\"name\":\"second\",\"version\":0}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void malformedIfMatchIsBadRequest() throws Exception {
+        mockMvc.perform(update("renamed").header(HttpHeaders.IF_MATCH, "W/\"0\""))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void concurrentEditorsWithSameVersionOnlyOneWins() throws Exception {
+        int editors = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(editors);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < editors; i++) {
+                String name = "editor-" + i;
+                Callable<Integer> edit = () -> {
+                    start.await();
+                    return mockMvc.perform(update(name).header(HttpHeaders.IF_MATCH, "\"0\""))
+                            .andReturn().getResponse().getStatus();
+                };
+                results.add(executor.submit(edit));
+            }
+            start.countDown();
+
+            List<Integer> statuses = new ArrayList<>();
+            for (Future<Integer> result : results) {
+                statuses.add(result.get());
+            }
+            assertThat(statuses).filteredOn(status -> status == 200).hasSize(1);
+            assertThat(statuses).filteredOn(status -> status == 412).hasSize(editors - 1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private MockHttpServletRequestBuilder update(String name) {
+        return post("/update/product")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\":" + product.id() + ",\"category\":\"" + CATEGORY + "\",\"name\":\"" + name + "\"}");
+    }
+}
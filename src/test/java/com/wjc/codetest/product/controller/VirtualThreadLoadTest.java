@@ -0,0 +1,38 @@
+package com.wjc.codetest.product.controller;
+
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 가상 스레드 모드: application-virtual-threads.properties 설정 그대로 실행합니다.
+// loadTest 태스크가 Java 21 런타임으로 띄우므로 건너뛰지 않고, 실제로 가상 스레드로 요청을 처리하는지 먼저 확인합니다.
+@ActiveProfiles("virtual-threads")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.jpa.show-sql=false"
+)
+class VirtualThreadLoadTest extends ProductControllerLoadTestSupport {
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    @Override
+    protected String mode() {
+        return "virtual";
+    }
+
+    // Java 21 미만 런타임에서는 설정이 무시되고 플랫폼 스레드 풀로 뜨므로, 비교 결과가 의미 없어지기 전에 실패합니다.
+    @Test
+    void tomcatServesRequestsOnVirtualThreads() {
+        assertThat(Runtime.version().feature()).isGreaterThanOrEqualTo(21);
+        TomcatWebServer webServer = (TomcatWebServer) context.getWebServer();
+        assertThat(webServer.getTomcat().getConnector().getProtocolHandler().getExecutor())
+                .isInstanceOf(VirtualThreadExecutor.class);
+    }
+}
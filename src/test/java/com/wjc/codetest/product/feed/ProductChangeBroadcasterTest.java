@@ -0,0 +1,367 @@
+package com.wjc.codetest.product.feed;
+
+import com.wjc.codetest.product.exception.ProductSubscriptionLimitExceededException;
+import com.wjc.codetest.product.model.domain.ProductChange;
+import com.wjc.codetest.product.model.event.ProductChangedEvent;
+import com.wjc.codetest.product.model.response.ProductChangeResponse;
+import com.wjc.codetest.product.model.response.ProductSubscriptionResponse;
+import com.wjc.codetest.product.service.ProductSubscriptionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+    카테고리 구독 broadcaster
+
+        - 유휴 구독자가 수천 개여도 변경은 해당 카테고리 구독자에게만 가는지,
+          느린 구독자의 버퍼가 넘칠 때 resync를 보내고 결국 연결을 끊는지 확인합니다.
+        - 동시에 구독해도 max-subscribers를 넘지 않는지 확인합니다.
+        - 전송이 막힌 구독자가 전송 스레드를 차지해도 다른 구독자는 계속 받고, 막힌 구독자는 send-timeout 뒤에 끊기는지 확인합니다.
+        - 앞뒤 공백이 있는 카테고리 구독은 trim하지 않고 거절하는지 확인합니다.
+        - 실제 연결 대신 send를 기록하는 emitter를 씁니다.
+ */
+class ProductChangeBroadcasterTest {
+
+    private static final int IDLE_SUBSCRIBERS = 5_000;
+    private static final Duration SEND_TIMEOUT = Duration.ofSeconds(10);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong changeIds = new AtomicLong();
+    private ProductChangeBroadcaster broadcaster;
+
+    @AfterEach
+    void tearDown() {
+        if (broadcaster != null) {
+            broadcaster.shutdown();
+        }
+    }
+
+    @Test
+    void fansOutOnlyToSubscribedCategoryAmongThousandsOfIdleSubscribers() throws Exception {
+        broadcaster = new ProductChangeBroadcaster(meterRegistry, 10_000, 256, 3, 2, SEND_TIMEOUT);
+        List<RecordingEmitter> idle = new ArrayList<>();
+        for (int i = 0; i < IDLE_SUBSCRIBERS; i++) {
+            RecordingEmitter emitter = new RecordingEmitter();
+            broadcaster.subscribe(Set.of("idle-" + (i % 50)), 0, emitter);
+            idle.add(emitter);
+        }
+        RecordingEmitter hot = new RecordingEmitter();
+        broadcaster.subscribe(Set.of("hot"), 0, hot);
+
+        for (int i = 0; i < 100; i++) {
+            broadcaster.broadcast(List.of(created("hot", "product-" + i)));
+        }
+
+        waitUntil(() -> hot.names().size() == 101);
+        assertThat(broadcaster.subscriberCount()).isEqualTo(IDLE_SUBSCRIBERS + 1);
+        assertThat(hot.names().get(0)).isEqualTo("subscribed");
+        assertThat(hot.changes()).hasSize(100);
+        assertThat(hot.changes()).extracting(ProductChangeResponse::changeId).isSorted();
+        assertThat(idle).allSatisfy(emitter -> assertThat(emitter.names()).containsExactly("subscribed"));
+    }
+
+    @Test
+    void categoryMoveReachesOldAndNewSubscribersOnce() throws Exception {
+        broadcaster = new ProductChangeBroadcaster(meterRegistry, 100, 256, 3, 2, SEND_TIMEOUT);
+        RecordingEmitter oldCategory = subscribe("a");
+        RecordingEmitter newCategory = subscribe("b");
+        RecordingEmitter both = subscribe("a", "b");
+        RecordingEmitter other = subscribe("c");
+
+        broadcaster.broadcast(List.of(committed(new ProductChangedEvent(
+                ProductChangedEvent.ChangeType.UPDATED, 1L, "a", "b", "moved", 2L))));
+
+        waitUntil(() -> oldCategory.changes().size() == 1 && newCategory.changes().size() == 1 && both.changes().size() == 1);
+        Thread.sleep(50);
+        assertThat(both.changes()).hasSize(1);
+        assertThat(other.changes()).isEmpty();
+    }
+
+    @Test
+    void deleteReachesOnlyPreviousCategorySubscribers() throws Exception {
+        broadcaster = new ProductChangeBroadcaster(meterRegistry, 100, 256, 3, 2, SEND_TIMEOUT);
+        RecordingEmitter deletedFrom = subscribe("a");
+        RecordingEmitter other = subscribe("b");
+
+        broadcaster.broadcast(List.of(committed(ProductChangedEvent.deleted(1L, "a"))));
+
+        waitUntil(() -> deletedFrom.changes().size() == 1);
+        Thread.sleep(50);
+        assertThat(deletedFrom.changes().get(0).type()).isEqualTo(ProductChangedEvent.ChangeType.DELETED);
+        assertThat(other.changes()).isEmpty();
+    }
+
+    @Test
+    void updateWithinCategoryDoesNotReachOtherCategorySubscribers() throws Exception {
+        broadcaster = new ProductChangeBroadcaster(meterRegistry, 100, 256, 3, 2, SEND_TIMEOUT);
+        RecordingEmitter subscribed = subscribe("a");
+        RecordingEmitter other = subscribe("b");
+
+        broadcaster.broadcast(List.of(committed(ProductChangedEvent.updated(1L, "a", "a", "renamed", 2L))));
+
+        waitUntil(() -> subscribed.changes().size() == 1);
+        Thread.sleep(50);
+        assertThat(subscribed.changes()).hasSize(1);
+        assertThat(other.changes()).isEmpty();
+    }
+
+    @Test
+    void blockedSendDoesNotStallOtherSubscribers() throws Exception {
+        // 전송 스레드 하나를 막힌 구독자가 차지하는 상황입니다.
+        broadcaster = new ProductChangeBroadcaster(meterRegistry, 100, 256, 3, 1, Duration.ofMillis(50));
+        RecordingEmitter stalled = subscribe("stalled");
+        RecordingEmitter healthy = subscribe("healthy");
+        stalled.block();
+
+        broadcaster.broadcast(List.of(created("stalled", "never-read")));
+        waitUntil(stalled::sendBlocked);
+        broadcaster.broadcast(List.of(created("healthy", "queued-behind")));
+        Thread.sleep(100);
+        assertThat(healthy.changes()).isEmpty();
+
+        broadcaster.disconnectStalledSends();
+
+        waitUntil(() -> healthy.changes().size() == 1);
+        assertThat(healthy.changes()).extracting(ProductChangeResponse::name).containsExactly("queued-behind");
+        assertThat(stalled.isCompleted()).isTrue();
+        assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("product.subscription.disconnects").tag("reason", "send_timeout").counter().count())
+                .isEqualTo(1);
+
+        // 막혀 있던 전송이 돌아온 뒤에도 나머지 구독자는 그대로 받습니다.
+        stalled.unblock();
+        broadcaster.broadcast(List.of(created("healthy", "after-unblock")));
+        waitUntil(() -> healthy.changes().size() == 2);
+        assertThat(healthy.changes()).extracting(ProductChangeResponse::name).containsExactly("queued-behind", "after-unblock");
+    }
+
+    @Test
+    void categoriesWithSurroundingWhitespaceAreRejected() {
+        broadcaster = new ProductChangeBroadcaster(meterRegistry, 100, 256, 3, 2, SEND_TIMEOUT);
+        // 검증은 구독 전에 끝나므로 outbox 저장소는 필요 없습니다.
+        ProductSubscriptionService subscriptionService = new ProductSubscriptionService(
+                broadcaster, new ProductChangeOutbox(null, null, Duration.ofDays(7), 1000), Duration.ofMinutes(30));
+
+        assertThatThrownBy(() -> subscriptionService.subscribe(List.of("fruit", " fruit ")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("whitespace");
+        assertThatThrownBy(() -> subscriptionService.subscribe(List.of("fruit\t")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(broadcaster.subscriberCount()).isZero();
+    }
+
+    @Test
+    void concurrentSubscribesNeverExceedMaxSubscribers() throws Exception {
+        int maxSubscribers = 50;
+        broadcaster = new ProductChangeBroadcaster(meterRegistry, maxSubscribers, 256, 3, 2, SEND_TIMEOUT);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        try {
+            for (int i = 0; i < 200; i++) {
+                executor.execute(() -> {
+                    start.countDown();
+                    try {
+                        start.await();
+                        broadcaster.subscribe(Set.of("limited"), 0, new RecordingEmitter());
+                        accepted.incrementAndGet();
+                    } catch (ProductSubscriptionLimitExceededException e) {
+                        rejected.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(accepted.get()).isEqualTo(maxSubscribers);
+        assertThat(rejected.get()).isEqualTo(200 - maxSubscribers);
+        assertThat(broadcaster.subscriberCount()).isEqualTo(maxSubscribers);
+    }
+
+    @Test
+    void overflowDropsBufferedChangesAndSendsResync() throws Exception {
+        broadcaster = new ProductChangeBroadcaster(meterRegistry, 100, 4, 3, 1, SEND_TIMEOUT);
+        RecordingEmitter slow = subscribe("slow");
+        slow.block();
+
+        // 첫 변경을 보내는 중에 막혀 있는 동안 버퍼(4)를 넘기게 보냅니다.
+        CommittedProductChange first = created("slow", "first");
+        broadcaster.broadcast(List.of(first));
+        waitUntil(slow::sendBlocked);
+        for (int i = 0; i < 10; i++) {
+            broadcaster.broadcast(List.of(created("slow", "dropped-" + i)));
+        }
+        slow.unblock();
+
+        waitUntil(() -> slow.names().contains("resync"));
+        assertThat(slow.names()).containsExactly("subscribed", "change", "resync");
+        assertThat(slow.resyncs().get(0).after()).isEqualTo(first.change().getId());
+        assertThat(meterRegistry.get("product.subscription.events").tag("result", "dropped").counter().count())
+                .isEqualTo(10);
+
+        // resync 이후에는 다시 정상적으로 받습니다.
+        broadcaster.broadcast(List.of(created("slow", "after-resync")));
+        waitUntil(() -> slow.changes().size() == 2);
+        assertThat(slow.changes().get(1).name()).isEqualTo("after-resync");
+    }
+
+    @Test
+    void slowConsumerIsDisconnectedAfterMaxOverflows() throws Exception {
+        broadcaster = new ProductChangeBroadcaster(meterRegistry, 100, 4, 1, 1, SEND_TIMEOUT);
+        RecordingEmitter slow = subscribe("slow");
+        slow.block();
+
+        overflow(slow);
+        slow.release(2);
+        waitUntil(() -> slow.names().contains("resync"));
+
+        overflow(slow);
+        assertThat(broadcaster.subscriberCount()).isZero();
+        assertThat(slow.isCompleted()).isTrue();
+        assertThat(meterRegistry.get("product.subscription.disconnects").tag("reason", "slow_consumer").counter().count())
+                .isEqualTo(1);
+        slow.unblock();
+    }
+
+    private void overflow(RecordingEmitter slow) throws InterruptedException {
+        broadcaster.broadcast(List.of(created("slow", "blocked")));
+        waitUntil(slow::sendBlocked);
+        for (int i = 0; i < 5; i++) {
+            broadcaster.broadcast(List.of(created("slow", "overflow-" + i)));
+        }
+    }
+
+    private RecordingEmitter subscribe(String... categories) {
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe(Set.of(categories), 0, emitter);
+        return emitter;
+    }
+
+    private CommittedProductChange created(String category, String name) {
+        return committed(new ProductChangedEvent(ProductChangedEvent.ChangeType.CREATED, changeIds.get() + 1, null, category, name, 0L));
+    }
+
+    private CommittedProductChange committed(ProductChangedEvent event) {
+        ProductChange change = ProductChange.of(event, Instant.now());
+        ReflectionTestUtils.setField(change, "id", changeIds.incrementAndGet());
+        return new CommittedProductChange(change, event);
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    // send를 기록하고, block() 이후에는 허용된 횟수만큼만 send를 통과시키는 emitter
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> names = new CopyOnWriteArrayList<>();
+        private final List<Object> payloads = new CopyOnWriteArrayList<>();
+        private volatile Semaphore permits;
+        private volatile boolean sendBlocked;
+        private volatile boolean completed;
+
+        void block() {
+            permits = new Semaphore(0);
+        }
+
+        void release(int count) {
+            permits.release(count);
+        }
+
+        void unblock() {
+            Semaphore blocked = permits;
+            permits = null;
+            blocked.release(Integer.MAX_VALUE / 2);
+        }
+
+        boolean sendBlocked() {
+            return sendBlocked;
+        }
+
+        boolean isCompleted() {
+            return completed;
+        }
+
+        List<String> names() {
+            return names;
+        }
+
+        List<ProductChangeResponse> changes() {
+            return payloads.stream()
+                    .filter(ProductChangeResponse.class::isInstance)
+                    .map(ProductChangeResponse.class::cast)
+                    .toList();
+        }
+
+        List<ProductSubscriptionResponse> resyncs() {
+            List<ProductSubscriptionResponse> resyncs = new ArrayList<>();
+            for (int i = 0; i < names.size(); i++) {
+                if (names.get(i).equals("resync")) {
+                    resyncs.add((ProductSubscriptionResponse) payloads.get(i));
+                }
+            }
+            return resyncs;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            Semaphore current = permits;
+            if (current != null && !current.tryAcquire()) {
+                sendBlocked = true;
+                current.acquireUninterruptibly();
+                sendBlocked = false;
+            }
+
+            String name = null;
+            Object payload = null;
+            for (DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof String text) {
+                    for (String line : text.split("\n")) {
+                        if (line.startsWith("event:")) {
+                            name = line.substring("event:".length());
+                        } else if (line.startsWith(":") && name == null) {
+                            name = "heartbeat";
+                        }
+                    }
+                } else {
+                    payload = part.getData();
+                }
+            }
+            names.add(name);
+            payloads.add(payload == null ? "" : payload);
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.wjc.codetest.product.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+    Flyway가 만든 복합 인덱스를 H2 실행 계획이 실제로 사용하는지 검증합니다.
+    쿼리는 ProductRepository 메소드가 생성하는 SQL과 같은 형태로 작성했습니다. (카테고리는 사전의 정수 키 category_id로 비교)
+ */
+@SpringBootTest
+class ProductIndexPlanTest {
+
+    private static final String INDEX_NAME = "IDX_PRODUCTS_CATEGORY_ID";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void categoryFilterUsesCompositeIndex() {
+        String plan = explain("SELECT product_id, category_id, name FROM products WHERE category_id = 1 ORDER BY category_id, product_id LIMIT 20 OFFSET 40");
+
+        assertThat(plan).containsIgnoringCase(INDEX_NAME);
+        assertThat(plan).containsIgnoringCase("index sorted");
+    }
+
+    @Test
+    void keysetQueryUsesCompositeIndex() {
+        String plan = explain("SELECT product_id, category_id, name FROM products WHERE category_id = 1 AND product_id > 100 ORDER BY category_id, product_id LIMIT 21");
+
+        assertThat(plan).containsIgnoringCase(INDEX_NAME);
+        assertThat(plan).containsIgnoringCase("index sorted");
+    }
+
+    @Test
+    void categoryListUsesCompositeIndex() {
+        String plan = explain("SELECT category_id, COUNT(*) FROM products GROUP BY category_id");
+
+        assertThat(plan).containsIgnoringCase(INDEX_NAME);
+        assertThat(plan).containsIgnoringCase("group sorted");
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+}
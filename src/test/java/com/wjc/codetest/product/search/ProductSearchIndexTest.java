@@ -0,0 +1,118 @@
+package com.wjc.codetest.product.search;
+
+import com.wjc.codetest.product.model.event.ProductChangedEvent;
+import com.wjc.codetest.product.model.request.CreateProductRequest;
+import com.wjc.codetest.product.model.request.UpdateProductRequest;
+import com.wjc.codetest.product.model.response.ProductListResponse;
+import com.wjc.codetest.product.model.response.ProductResponse;
+import com.wjc.codetest.product.model.response.ProductTypeaheadResponse;
+import com.wjc.codetest.product.service.ProductSearchService;
+import com.wjc.codetest.product.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+    상품명 역색인 검색
+
+        - 다른 테스트가 만든 상품과 섞이지 않도록 테스트마다 고유한 단어를 씁니다.
+        - 쓰기는 ProductService(커밋 이후 이벤트)로 해서 색인이 실제 경로로 갱신되는지 확인합니다.
+        - 이벤트 순서가 뒤바뀌는 경우만 이벤트를 색인에 직접 넘겨서 재현합니다.
+ */
+@SpringBootTest
+class ProductSearchIndexTest {
+
+    private static final String CATEGORY = "search";
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Test
+    void ranksExactWordThenPrefixThenSubstring() {
+        ProductResponse leading = create("Zephyr Walnut Desk");
+        ProductResponse exact = create("Oak desk zephyr");
+        ProductResponse prefix = create("Walnut Zephyrine Lamp");
+
+        assertThat(names(productSearchService.search("ZEPHYR", 0, 10)))
+                .containsExactly(leading.name(), exact.name(), prefix.name());
+        assertThat(names(productSearchService.search("ephyr", 0, 10)))
+                .containsExactlyInAnyOrder(leading.name(), exact.name(), prefix.name());
+    }
+
+    @Test
+    void requiresEveryTermAndPaginates() {
+        create("Quokka red chair");
+        create("Quokka blue chair");
+        create("Quokka blue table");
+
+        ProductListResponse both = productSearchService.search("quokka, chair", 0, 10);
+        assertThat(both.getTotalElements()).isEqualTo(2L);
+
+        ProductListResponse secondPage = productSearchService.search("quokka", 1, 2);
+        assertThat(secondPage.getTotalElements()).isEqualTo(3L);
+        assertThat(secondPage.getTotalPages()).isEqualTo(2);
+        assertThat(secondPage.getProducts()).hasSize(1);
+    }
+
+    @Test
+    void shortTermsMatchWordPrefixes() {
+        ProductResponse product = create("Xylo kettle");
+
+        assertThat(names(productSearchService.search("xy", 0, 10))).contains(product.name());
+        assertThat(names(productSearchService.search("yl", 0, 10))).doesNotContain(product.name());
+    }
+
+    @Test
+    void followsUpdatesAndDeletes() {
+        ProductResponse product = create("Marmot lantern");
+
+        productService.update(new UpdateProductRequest(product.id(), CATEGORY, "Marmot candle"));
+        assertThat(productSearchService.search("lantern marmot", 0, 10).getTotalElements()).isZero();
+        assertThat(productSearchService.search("candle marmot", 0, 10).getProducts())
+                .extracting(ProductResponse::version)
+                .containsExactly(1L);
+
+        productService.deleteById(product.id());
+        assertThat(productSearchService.search("marmot", 0, 10).getTotalElements()).isZero();
+    }
+
+    @Test
+    void ignoresUpdateDeliveredAfterDelete() {
+        ProductResponse product = create("Pangolin sconce");
+        productService.deleteById(product.id());
+
+        // 삭제보다 먼저 커밋된 수정 이벤트가 늦게 도착한 경우
+        productSearchIndex.onProductChanged(
+                ProductChangedEvent.updated(product.id(), CATEGORY, CATEGORY, "Pangolin sconce v2", product.version() + 1));
+
+        assertThat(productSearchService.search("pangolin", 0, 10).getTotalElements()).isZero();
+        assertThat(productSearchService.typeahead("pangolin", 10).names())
+                .extracting(ProductTypeaheadResponse.Completion::value)
+                .isEmpty();
+    }
+
+    @Test
+    void rejectsBlankQueryAndOversizedPage() {
+        assertThatThrownBy(() -> productSearchService.search(" ", 0, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> productSearchService.search("desk", 0, 1000)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private ProductResponse create(String name) {
+        return productService.create(new CreateProductRequest(CATEGORY, name));
+    }
+
+    private static List<String> names(ProductListResponse response) {
+        return response.getProducts().stream().map(ProductResponse::name).toList();
+    }
+}
@@ -0,0 +1,78 @@
+package com.wjc.codetest.product.search;
+
+import com.wjc.codetest.product.model.request.CreateProductRequest;
+import com.wjc.codetest.product.model.request.UpdateProductRequest;
+import com.wjc.codetest.product.model.response.ProductResponse;
+import com.wjc.codetest.product.model.response.ProductTypeaheadResponse;
+import com.wjc.codetest.product.model.response.ProductTypeaheadResponse.Completion;
+import com.wjc.codetest.product.service.ProductSearchService;
+import com.wjc.codetest.product.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+    카테고리/상품명 자동완성
+
+        - 다른 테스트의 상품과 섞이지 않도록 테스트마다 고유한 prefix를 씁니다.
+ */
+@SpringBootTest
+class ProductTypeaheadTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Test
+    void completesCategoriesByProductCount() {
+        productService.create(new CreateProductRequest("Tyhd-Kitchen", "pan"));
+        productService.create(new CreateProductRequest("Tyhd-Kitchen", "pot"));
+        productService.create(new CreateProductRequest("Tyhd-Garden", "hose"));
+
+        ProductTypeaheadResponse response = productSearchService.typeahead("tyhd", 10);
+
+        assertThat(response.categories()).containsExactly(
+                new Completion("Tyhd-Kitchen", 2L),
+                new Completion("Tyhd-Garden", 1L));
+        assertThat(productSearchService.typeahead("TYHD-G", 10).categories())
+                .containsExactly(new Completion("Tyhd-Garden", 1L));
+    }
+
+    @Test
+    void completesNamesAndHonoursLimit() {
+        productService.create(new CreateProductRequest("typeahead", "Qwv lamp"));
+        productService.create(new CreateProductRequest("typeahead", "Qwv lamp"));
+        productService.create(new CreateProductRequest("typeahead", "Qwv desk"));
+        productService.create(new CreateProductRequest("typeahead", "Qwv chair"));
+
+        assertThat(productSearchService.typeahead("qwv", 2).names()).containsExactly(
+                new Completion("Qwv lamp", 2L),
+                new Completion("Qwv chair", 1L));
+    }
+
+    @Test
+    void followsUpdatesAndDeletes() {
+        ProductResponse product = productService.create(new CreateProductRequest("Jkx-Old", "Jkx item"));
+
+        productService.update(new UpdateProductRequest(product.id(), "Jkx-New", "Jkx renamed"));
+        ProductTypeaheadResponse updated = productSearchService.typeahead("jkx", 10);
+        assertThat(updated.categories()).containsExactly(new Completion("Jkx-New", 1L));
+        assertThat(updated.names()).containsExactly(new Completion("Jkx renamed", 1L));
+
+        productService.deleteById(product.id());
+        ProductTypeaheadResponse deleted = productSearchService.typeahead("jkx", 10);
+        assertThat(deleted.categories()).isEmpty();
+        assertThat(deleted.names()).isEmpty();
+    }
+
+    @Test
+    void rejectsBlankPrefixAndOversizedLimit() {
+        assertThatThrownBy(() -> productSearchService.typeahead(" ", 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> productSearchService.typeahead("a", 11)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,87 @@
+package com.wjc.codetest.product.service;
+
+import com.wjc.codetest.global.metrics.SqlStatementListener;
+import com.wjc.codetest.product.model.request.CreateProductRequest;
+import com.wjc.codetest.product.model.request.GetProductListRequest;
+import com.wjc.codetest.product.model.request.PagingMode;
+import com.wjc.codetest.support.SqlStatementBudget;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+    단건 생성 경로와 일괄 생성 경로의 처리량(rows/s)을 같은 건수로 비교합니다.
+    절대 수치는 환경에 따라 달라지므로 결과는 로그로 남기고, 검증은 적재 건수와 SQL 실행 횟수로 합니다.
+        - 단건: 상품마다 insert 2번(상품, outbox)
+        - 일괄: batch_size(50)건마다 JDBC 배치 2번(상품, outbox) + 시퀀스 호출 2번
+    수천 건을 넣으므로 다른 테스트와 같은 DB를 쓰지 않도록 이 테스트 전용 인메모리 DB를 씁니다.
+ */
+@Slf4j
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:bulk-throughput;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+class ProductBulkThroughputTest {
+
+    private static final int ROWS = 5_000;
+    private static final int BATCH_SIZE = 50;
+    // 카테고리 등록, 시퀀스 첫 할당처럼 건수와 관계없이 몇 번 나가는 쿼리
+    private static final int FIXED_STATEMENTS = 10;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductBulkService productBulkService;
+
+    @Autowired
+    private SqlStatementListener sqlStatementListener;
+
+    @Test
+    void bulkCreateThroughputComparedToSingleItemPath() throws Exception {
+        SqlStatementBudget statementBudget = new SqlStatementBudget(sqlStatementListener);
+
+        List<CreateProductRequest> singleRequests = requests("throughput-single");
+        long singleStartedAt = System.nanoTime();
+        long singleStatements = statementBudget.count(() -> singleRequests.forEach(productService::create));
+        long singleElapsed = System.nanoTime() - singleStartedAt;
+
+        List<CreateProductRequest> bulkRequests = requests("throughput-bulk");
+        long bulkStartedAt = System.nanoTime();
+        long bulkStatements = statementBudget.count(() -> productBulkService.createAll(bulkRequests));
+        long bulkElapsed = System.nanoTime() - bulkStartedAt;
+
+        log.info("create throughput :: rows={}, single={} rows/s ({} statements), bulk={} rows/s ({} statements)",
+                ROWS, rowsPerSecond(singleElapsed), singleStatements, rowsPerSecond(bulkElapsed), bulkStatements);
+
+        assertThat(countOf("throughput-single")).isEqualTo(ROWS);
+        assertThat(countOf("throughput-bulk")).isEqualTo(ROWS);
+        assertThat(singleStatements).isBetween(2L * ROWS, 2L * ROWS + 2L * ROWS / BATCH_SIZE + FIXED_STATEMENTS);
+        assertThat(bulkStatements).isLessThanOrEqualTo(4L * ROWS / BATCH_SIZE + FIXED_STATEMENTS);
+    }
+
+    private List<CreateProductRequest> requests(String category) {
+        return IntStream.range(0, ROWS)
+                .mapToObj(i -> new CreateProductRequest(category, "product-" + i))
+                .toList();
+    }
+
+    private long countOf(String category) {
+        GetProductListRequest request = new GetProductListRequest();
+        request.setCategory(category);
+        request.setPage(0);
+        request.setSize(1);
+        request.setMode(PagingMode.OFFSET);
+        return productService.getListByCategory(request).getTotalElements();
+    }
+
+    private static long rowsPerSecond(long elapsedNanos) {
+        return ROWS * 1_000_000_000L / Math.max(elapsedNanos, 1L);
+    }
+}
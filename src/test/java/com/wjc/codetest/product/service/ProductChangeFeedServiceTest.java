@@ -0,0 +1,142 @@
+package com.wjc.codetest.product.service;
+
+import com.wjc.codetest.product.feed.ProductChangeOutbox;
+import com.wjc.codetest.product.model.event.ProductChangedEvent.ChangeType;
+import com.wjc.codetest.product.model.request.CreateProductRequest;
+import com.wjc.codetest.product.model.request.UpdateProductRequest;
+import com.wjc.codetest.product.model.response.ProductChangeFeedResponse;
+import com.wjc.codetest.product.model.response.ProductChangeResponse;
+import com.wjc.codetest.product.model.response.ProductResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+    change feed
+
+        - 상품 쓰기와 같은 트랜잭션에 쌓인 outbox 행을 커서 순서대로 읽는지,
+          long-poll 요청이 새 커밋에 바로 응답하는지 확인합니다.
+        - 같은 커서로 기다리는 요청은 한 번 읽은 결과를 각자의 limit으로 나눠 받는지 확인합니다.
+ */
+@SpringBootTest
+class ProductChangeFeedServiceTest {
+
+    private static final String CATEGORY = "change-feed";
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductBulkService productBulkService;
+
+    @Autowired
+    private ProductChangeFeedService productChangeFeedService;
+
+    @Autowired
+    private ProductChangeOutbox productChangeOutbox;
+
+    private long cursor;
+
+    @BeforeEach
+    void setUp() {
+        cursor = productChangeOutbox.committedUpTo();
+    }
+
+    @Test
+    void readsCreateUpdateDeleteInCommitOrder() {
+        ProductResponse product = productService.create(new CreateProductRequest(CATEGORY, "feed"));
+        productService.update(new UpdateProductRequest(product.id(), CATEGORY, "feed-updated"));
+        productService.deleteById(product.id());
+
+        ProductChangeFeedResponse response = productChangeFeedService.read(cursor, 100);
+
+        assertThat(response.changes()).extracting(ProductChangeResponse::type)
+                .containsExactly(ChangeType.CREATED, ChangeType.UPDATED, ChangeType.DELETED);
+        assertThat(response.changes()).extracting(ProductChangeResponse::productId).containsOnly(product.id());
+        assertThat(response.changes().get(1).name()).isEqualTo("feed-updated");
+        assertThat(response.changes().get(1).version()).isEqualTo(product.version() + 1);
+        assertThat(response.hasMore()).isFalse();
+        assertThat(response.nextCursor()).isGreaterThanOrEqualTo(response.changes().get(2).changeId());
+        assertThat(productChangeFeedService.read(response.nextCursor(), 100).changes()).isEmpty();
+    }
+
+    @Test
+    void pagesWithLimitAndHasMore() {
+        for (int i = 0; i < 3; i++) {
+            productService.create(new CreateProductRequest(CATEGORY, "feed-" + i));
+        }
+
+        ProductChangeFeedResponse first = productChangeFeedService.read(cursor, 2);
+        ProductChangeFeedResponse second = productChangeFeedService.read(first.nextCursor(), 2);
+
+        assertThat(first.changes()).hasSize(2);
+        assertThat(first.hasMore()).isTrue();
+        assertThat(first.nextCursor()).isEqualTo(first.changes().get(1).changeId());
+        assertThat(second.changes()).extracting(ProductChangeResponse::name).containsExactly("feed-2");
+        assertThat(second.hasMore()).isFalse();
+    }
+
+    @Test
+    void longPollCompletesOnNextCommit() throws Exception {
+        DeferredResult<ProductChangeFeedResponse> result = productChangeFeedService.poll(cursor, 10, Duration.ofSeconds(10));
+        assertThat(result.hasResult()).isFalse();
+
+        ProductResponse product = productService.create(new CreateProductRequest(CATEGORY, "feed-waiting"));
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!result.hasResult() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(result.hasResult()).isTrue();
+        ProductChangeFeedResponse response = (ProductChangeFeedResponse) result.getResult();
+        assertThat(response.changes()).extracting(ProductChangeResponse::productId).containsExactly(product.id());
+    }
+
+    @Test
+    void waitersOnSameCursorShareOneReadWithTheirOwnLimit() throws Exception {
+        DeferredResult<ProductChangeFeedResponse> small = productChangeFeedService.poll(cursor, 1, Duration.ofSeconds(10));
+        DeferredResult<ProductChangeFeedResponse> large = productChangeFeedService.poll(cursor, 10, Duration.ofSeconds(10));
+
+        productBulkService.createAll(List.of(
+                new CreateProductRequest(CATEGORY, "feed-shared-1"),
+                new CreateProductRequest(CATEGORY, "feed-shared-2")));
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!(small.hasResult() && large.hasResult()) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        ProductChangeFeedResponse smallResponse = (ProductChangeFeedResponse) small.getResult();
+        ProductChangeFeedResponse largeResponse = (ProductChangeFeedResponse) large.getResult();
+        assertThat(smallResponse.changes()).extracting(ProductChangeResponse::name).containsExactly("feed-shared-1");
+        assertThat(smallResponse.hasMore()).isTrue();
+        assertThat(smallResponse.nextCursor()).isEqualTo(smallResponse.changes().get(0).changeId());
+        assertThat(largeResponse.changes()).extracting(ProductChangeResponse::name).containsExactly("feed-shared-1", "feed-shared-2");
+        assertThat(largeResponse.hasMore()).isFalse();
+    }
+
+    @Test
+    void respondsImmediatelyWithoutWait() {
+        DeferredResult<ProductChangeFeedResponse> result = productChangeFeedService.poll(cursor, 10, Duration.ZERO);
+
+        assertThat(result.hasResult()).isTrue();
+        assertThat(((ProductChangeFeedResponse) result.getResult()).changes()).isEmpty();
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThatThrownBy(() -> productChangeFeedService.poll(-1, 10, Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> productChangeFeedService.poll(0, 0, Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> productChangeFeedService.poll(0, 10, Duration.ofMinutes(5)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
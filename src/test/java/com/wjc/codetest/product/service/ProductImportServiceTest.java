@@ -0,0 +1,45 @@
+package com.wjc.codetest.product.service;
+
+import com.wjc.codetest.product.model.response.ProductImportResponse;
+import com.wjc.codetest.product.model.response.ProductImportResponse.Rejection;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+    일괄 import
+
+        - 잘못된 행은 전체 요청을 실패시키지 않고 줄 번호와 사유를 담아 거부 행으로 돌려주는지 확인합니다.
+ */
+@SpringBootTest
+class ProductImportServiceTest {
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Test
+    void nullAndMalformedNdjsonRowsAreRejectedWithoutFailingImport() throws Exception {
+        String ndjson = """
+                {"category":"import-rejects","name":"valid"}
+                null
+                {"category":"import-rejects"
+                {"category":"import-rejects","name":""}
+                """;
+
+        ProductImportResponse response = productImportService.importProducts(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), ProductImportService.Format.NDJSON);
+
+        assertThat(response.totalRows()).isEqualTo(4);
+        assertThat(response.importedRows()).isEqualTo(1);
+        assertThat(response.rejectedRows()).isEqualTo(3);
+        assertThat(response.rejections()).containsExactly(
+                new Rejection(2, "empty row"),
+                new Rejection(3, "malformed json"),
+                new Rejection(4, "name is required"));
+    }
+}
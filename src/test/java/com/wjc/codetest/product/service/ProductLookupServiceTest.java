@@ -0,0 +1,89 @@
+package com.wjc.codetest.product.service;
+
+import com.wjc.codetest.global.metrics.SqlStatementListener;
+import com.wjc.codetest.product.model.request.CreateProductRequest;
+import com.wjc.codetest.product.model.response.ProductLookupResponse;
+import com.wjc.codetest.product.model.response.ProductLookupResponse.Result;
+import com.wjc.codetest.product.model.response.ProductResponse;
+import com.wjc.codetest.support.SqlStatementBudget;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+    여러 id 일괄 조회
+
+        - chunk-size를 2로 줄여서 IN 절 청크 분할과 캐시 hit 생략을 쿼리 수로 확인합니다.
+ */
+@SpringBootTest(properties = {
+        "product.lookup.chunk-size=2",
+        "product.lookup.max-ids=10",
+        "product.category-cache.reconcile-delay=1h",
+        "product.category-cache.full-reconcile-interval=1h"
+})
+class ProductLookupServiceTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductLookupService productLookupService;
+
+    @Autowired
+    private SqlStatementListener sqlStatementListener;
+
+    @Test
+    void preservesRequestOrderAndMarksMissingIds() {
+        List<Long> ids = createProducts(3);
+        long missingId = Long.MAX_VALUE;
+
+        ProductLookupResponse response = productLookupService.getAllById(List.of(ids.get(2), missingId, ids.get(0), ids.get(2)));
+
+        assertThat(response.results()).extracting(Result::id).containsExactly(ids.get(2), missingId, ids.get(0), ids.get(2));
+        assertThat(response.results()).extracting(Result::found).containsExactly(true, false, true, true);
+        assertThat(response.results().get(1).product()).isNull();
+        assertThat(response.results().get(0).product().name()).isEqualTo("lookup-2");
+        assertThat(response.foundCount()).isEqualTo(3);
+        assertThat(response.notFoundCount()).isEqualTo(1);
+    }
+
+    @Test
+    void readsMissesInChunksAndSkipsCachedProducts() throws Exception {
+        List<Long> ids = createProducts(5);
+        SqlStatementBudget statementBudget = new SqlStatementBudget(sqlStatementListener);
+
+        // 5개 id, 청크 2 -> IN 쿼리 3번
+        assertThat(statementBudget.count(() -> productLookupService.getAllById(ids))).isEqualTo(3L);
+
+        // 단건 조회로 캐시에 올라간 2개는 DB에서 읽지 않습니다. -> 남은 3개, IN 쿼리 2번
+        productService.getProductById(ids.get(0));
+        productService.getProductById(ids.get(1));
+        assertThat(statementBudget.count(() -> productLookupService.getAllById(ids))).isEqualTo(2L);
+    }
+
+    @Test
+    void rejectsEmptyOversizedOrNullIds() {
+        assertThatThrownBy(() -> productLookupService.getAllById(List.of())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> productLookupService.getAllById(Collections.nCopies(11, 1L)))
+                .isInstanceOf(IllegalArgumentException.class);
+        List<Long> withNull = new ArrayList<>();
+        withNull.add(null);
+        assertThatThrownBy(() -> productLookupService.getAllById(withNull)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<Long> createProducts(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ProductResponse product = productService.create(new CreateProductRequest("lookup", "lookup-" + i));
+            ids.add(product.id());
+        }
+        return ids;
+    }
+}
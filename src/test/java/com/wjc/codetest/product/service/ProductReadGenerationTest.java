@@ -0,0 +1,42 @@
+package com.wjc.codetest.product.service;
+
+import com.wjc.codetest.product.model.request.CreateProductRequest;
+import com.wjc.codetest.product.model.request.UpdateProductRequest;
+import com.wjc.codetest.product.model.response.ProductResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+    목록 조회 single-flight 세대
+
+        - 쓰기는 변경 전/후 카테고리의 세대만 올려서, 다른 카테고리의 목록 조회는 계속 같은 키로 합쳐지는지 확인합니다.
+ */
+@SpringBootTest
+class ProductReadGenerationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void writesOnlyAdvanceTheCategoriesTheyTouch() {
+        long untouched = productService.categoryGeneration("generation-untouched");
+        long source = productService.categoryGeneration("generation-source");
+        long target = productService.categoryGeneration("generation-target");
+
+        ProductResponse product = productService.create(new CreateProductRequest("generation-source", "product"));
+        assertThat(productService.categoryGeneration("generation-source")).isEqualTo(source + 1);
+
+        // 카테고리를 옮기면 이전 카테고리 목록에서도 빠지므로 두 카테고리 모두 올라갑니다.
+        productService.update(new UpdateProductRequest(product.id(), "generation-target", "product"));
+        assertThat(productService.categoryGeneration("generation-source")).isEqualTo(source + 2);
+        assertThat(productService.categoryGeneration("generation-target")).isEqualTo(target + 1);
+
+        productService.deleteById(product.id());
+        assertThat(productService.categoryGeneration("generation-target")).isEqualTo(target + 2);
+
+        assertThat(productService.categoryGeneration("generation-untouched")).isEqualTo(untouched);
+    }
+}
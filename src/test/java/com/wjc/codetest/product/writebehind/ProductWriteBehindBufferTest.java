@@ -0,0 +1,241 @@
+package com.wjc.codetest.product.writebehind;
+
+import com.wjc.codetest.product.model.request.CreateProductRequest;
+import com.wjc.codetest.product.model.request.UpdateProductRequest;
+import com.wjc.codetest.product.model.response.ProductResponse;
+import com.wjc.codetest.product.repository.ProductRepository;
+import com.wjc.codetest.product.repository.ProductView;
+import com.wjc.codetest.product.service.ProductBulkService;
+import com.wjc.codetest.product.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+    write-behind 수정
+
+        - 같은 상품의 수정은 마지막 것만 한 번 반영되고, 반영 전에도 단건 조회는 마지막 수정을 보여주는지(read-your-writes)
+        - 다시 해도 실패할 수정 한 건 때문에 같은 배치의 다른 수정이 막히지 않고, 그 수정은 버려지는지
+        - 동기 수정/삭제(단건, 일괄) 전에 그 상품의 남은 수정만 먼저 반영하는지, 그 반영이 실패하면 버려서 동기 수정이 마지막 값으로 남는지
+        - 없는 상품의 write-behind 수정은 404로 거절하는지, 종료 시 남은 수정을 반영하는지 확인합니다.
+        - 주기 flush가 끼어들지 않도록 flush-interval을 늘리고 flush()를 직접 호출합니다.
+ */
+@SpringBootTest(properties = {
+        "product.write-behind.enabled=true",
+        "product.write-behind.flush-interval=1h",
+        "product.write-behind.flush-size=20"
+})
+@AutoConfigureMockMvc
+class ProductWriteBehindBufferTest {
+
+    private static final String CATEGORY = "write-behind";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductBulkService productBulkService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductWriteBehindBuffer productWriteBehindBuffer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ProductResponse product;
+
+    @BeforeEach
+    void setUp() {
+        productWriteBehindBuffer.flush();
+        product = productService.create(new CreateProductRequest(CATEGORY, "original"));
+    }
+
+    @Test
+    void coalescesUpdatesAndReadsYourWritesBeforeFlush() {
+        for (int i = 1; i <= 3; i++) {
+            assertThat(productService.updateBehind(new UpdateProductRequest(product.id(), CATEGORY, "price-" + i))).isTrue();
+        }
+
+        assertThat(productWriteBehindBuffer.pendingCount()).isEqualTo(1);
+        ProductResponse beforeFlush = productService.getProductById(product.id());
+        assertThat(beforeFlush.name()).isEqualTo("price-3");
+        assertThat(beforeFlush.version()).isNull();
+        assertThat(stored(product.id()).getName()).isEqualTo("original");
+
+        productWriteBehindBuffer.flush();
+
+        // 세 번의 수정이 한 번의 UPDATE로 반영되어 버전은 1만 오릅니다.
+        assertThat(stored(product.id()).getName()).isEqualTo("price-3");
+        assertThat(stored(product.id()).getVersion()).isEqualTo(product.version() + 1);
+        assertThat(productService.getProductById(product.id()).version()).isEqualTo(product.version() + 1);
+        assertThat(productWriteBehindBuffer.pendingCount()).isZero();
+    }
+
+    @Test
+    void synchronousUpdateAppliesPendingUpdateFirst() {
+        productService.updateBehind(new UpdateProductRequest(product.id(), CATEGORY, "behind"));
+
+        // 버퍼의 수정이 먼저 반영되어야 버전 조건(original + 1)이 맞습니다.
+        ProductResponse updated = productService.update(new UpdateProductRequest(product.id(), CATEGORY, "sync"), product.version() + 1);
+
+        assertThat(updated.version()).isEqualTo(product.version() + 2);
+        assertThat(stored(product.id()).getName()).isEqualTo("sync");
+        assertThat(productWriteBehindBuffer.pending(product.id())).isNull();
+    }
+
+    @Test
+    void bulkUpdateAndDeleteApplyOnlyTheirPendingUpdatesFirst() {
+        ProductResponse untouched = productService.create(new CreateProductRequest(CATEGORY, "untouched"));
+        ProductResponse deleted = productService.create(new CreateProductRequest(CATEGORY, "deleted"));
+        productService.updateBehind(new UpdateProductRequest(product.id(), CATEGORY, "behind"));
+        productService.updateBehind(new UpdateProductRequest(untouched.id(), CATEGORY, "still-buffered"));
+        productService.updateBehind(new UpdateProductRequest(deleted.id(), CATEGORY, "resurrected"));
+
+        productService.updateAll(List.of(new UpdateProductRequest(product.id(), CATEGORY, "bulk")));
+        productService.deleteAllById(List.of(deleted.id()));
+
+        // 요청한 상품의 수정만 먼저 반영되고, 다른 상품의 수정은 버퍼에 그대로 남습니다.
+        assertThat(productWriteBehindBuffer.pending(product.id())).isNull();
+        assertThat(productWriteBehindBuffer.pending(deleted.id())).isNull();
+        assertThat(productWriteBehindBuffer.pending(untouched.id())).isNotNull();
+        assertThat(stored(untouched.id()).getName()).isEqualTo("untouched");
+
+        // 나중 flush가 일괄 수정을 덮어쓰거나 삭제된 상품을 되살리지 않습니다.
+        productWriteBehindBuffer.flush();
+        assertThat(stored(product.id()).getName()).isEqualTo("bulk");
+        assertThat(stored(product.id()).getVersion()).isEqualTo(product.version() + 2);
+        assertThat(productRepository.findProjectedById(deleted.id())).isEmpty();
+        assertThat(stored(untouched.id()).getName()).isEqualTo("still-buffered");
+    }
+
+    @Test
+    void permanentlyFailingUpdateIsDroppedWithoutBlockingTheBatch() {
+        ProductResponse other = productService.create(new CreateProductRequest(CATEGORY, "other"));
+        double droppedBefore = meterRegistry.get("product.write-behind.flushed").tag("result", "dropped").counter().count();
+        productService.updateBehind(new UpdateProductRequest(product.id(), CATEGORY, "x".repeat(300)));
+        productService.updateBehind(new UpdateProductRequest(other.id(), CATEGORY, "applied"));
+
+        productWriteBehindBuffer.flush();
+
+        // 컬럼 길이를 넘는 수정은 다시 넣지 않고 버리고, 같은 배치의 다른 수정은 반영됩니다.
+        assertThat(stored(other.id()).getName()).isEqualTo("applied");
+        assertThat(stored(product.id()).getName()).isEqualTo("original");
+        assertThat(productWriteBehindBuffer.pendingCount()).isZero();
+        assertThat(productWriteBehindBuffer.pending(product.id())).isNull();
+        assertThat(meterRegistry.get("product.write-behind.flushed").tag("result", "dropped").counter().count())
+                .isEqualTo(droppedBefore + 1);
+    }
+
+    @Test
+    void failedPreFlushIsDroppedSoSynchronousUpdateStaysLatest() {
+        productService.updateBehind(new UpdateProductRequest(product.id(), CATEGORY, "x".repeat(300)));
+
+        // 버퍼의 수정은 반영에 실패하지만, 다시 넣지 않으므로 이후 flush가 동기 수정을 덮어쓰지 않습니다.
+        productService.update(new UpdateProductRequest(product.id(), CATEGORY, "sync"));
+        assertThat(productWriteBehindBuffer.pending(product.id())).isNull();
+
+        productWriteBehindBuffer.flush();
+        assertThat(stored(product.id()).getName()).isEqualTo("sync");
+    }
+
+    @Test
+    void updateBehindRejectsMissingProduct() throws Exception {
+        mockMvc.perform(post("/update/product")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":" + Long.MAX_VALUE + ",\"category\":\"" + CATEGORY + "\",\"name\":\"missing\"}"))
+                .andExpect(status().isNotFound());
+        assertThat(productWriteBehindBuffer.pending(Long.MAX_VALUE)).isNull();
+    }
+
+    @Test
+    void skipsProductsDeletedWhileBuffered() {
+        productService.updateBehind(new UpdateProductRequest(product.id(), CATEGORY, "orphan"));
+        productRepository.deleteById(product.id());
+
+        productWriteBehindBuffer.flush();
+
+        assertThat(productRepository.findProjectedById(product.id())).isEmpty();
+        assertThat(productWriteBehindBuffer.pendingCount()).isZero();
+    }
+
+    @Test
+    void flushesInBackgroundWhenFlushSizeIsReached() throws Exception {
+        List<CreateProductRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            requests.add(new CreateProductRequest(CATEGORY, "bulk-" + i));
+        }
+        List<ProductResponse> products = productBulkService.createAll(requests);
+
+        products.forEach(created -> productService.updateBehind(new UpdateProductRequest(created.id(), CATEGORY, "enriched")));
+
+        waitUntil(() -> productWriteBehindBuffer.pendingCount() == 0
+                && "enriched".equals(stored(products.get(19).id()).getName()));
+        assertThat(products).allSatisfy(created -> assertThat(stored(created.id()).getName()).isEqualTo("enriched"));
+    }
+
+    @Test
+    void respondAsyncUpdateIsAcceptedAndConditionalUpdateStaysSynchronous() throws Exception {
+        mockMvc.perform(post("/update/product")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":" + product.id() + ",\"category\":\"" + CATEGORY + "\",\"name\":\"async\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Preference-Applied", "respond-async"));
+        assertThat(productWriteBehindBuffer.pending(product.id())).isNotNull();
+
+        mockMvc.perform(post("/update/product")
+                        .header("Prefer", "respond-async")
+                        .header(HttpHeaders.IF_MATCH, "\"" + (product.version() + 1) + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":" + product.id() + ",\"category\":\"" + CATEGORY + "\",\"name\":\"conditional\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + (product.version() + 2) + "\""));
+    }
+
+    @Test
+    void shutdownFlushesRemainingUpdatesAndStopsBuffering() {
+        ProductWriteBehindBuffer buffer = new ProductWriteBehindBuffer(productBulkService, new SimpleMeterRegistry(),
+                true, 4, 1000, 1000, 500, 3);
+        assertThat(buffer.offer(new UpdateProductRequest(product.id(), CATEGORY, "before-shutdown"))).isTrue();
+
+        buffer.shutdown();
+
+        assertThat(stored(product.id()).getName()).isEqualTo("before-shutdown");
+        assertThat(buffer.offer(new UpdateProductRequest(product.id(), CATEGORY, "after-shutdown"))).isFalse();
+    }
+
+    private ProductView stored(Long productId) {
+        return productRepository.findProjectedById(productId).orElseThrow();
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.wjc.codetest.support;
+
+import com.wjc.codetest.global.metrics.SqlStatementListener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+    "이 동작은 SQL을 N번 이하로 실행한다"를 검증하는 테스트 유틸
+
+        - datasource-proxy 리스너의 전체 누적 실행 횟수 차이로 세므로, 비동기 스레드(스트리밍 응답 등)에서 실행된 쿼리도 포함됩니다.
+        - 테스트는 순차 실행을 전제로 합니다. (병렬 실행 시 다른 테스트의 쿼리가 섞임)
+        - 실행 횟수는 JDBC 왕복 기준이며, JDBC 배치 한 번은 1회로 셉니다.
+
+    사용 예)
+        statementBudget.assertAtMost(2, () -> mockMvc.perform(post("/update/product")...));
+ */
+public class SqlStatementBudget {
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    private final SqlStatementListener sqlStatementListener;
+
+    public SqlStatementBudget(SqlStatementListener sqlStatementListener) {
+        this.sqlStatementListener = sqlStatementListener;
+    }
+
+    public long count(Action action) throws Exception {
+        long before = sqlStatementListener.totalStatements();
+        action.run();
+        return sqlStatementListener.totalStatements() - before;
+    }
+
+    public void assertAtMost(long maxStatements, Action action) throws Exception {
+        assertThat(count(action))
+                .as("sql statements executed")
+                .isLessThanOrEqualTo(maxStatements);
+    }
+}